@@ -0,0 +1,100 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk {@code saveAll} of {@code rows} users and as many items in one transaction, flushed and rolled back
+ * so that every invocation writes into the same empty tables.
+ * {@code batchSize=1} turns JDBC batching off and gives the one-INSERT-per-row baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkInsertBenchmark {
+    @Param("1000")
+    public int rows;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+
+    private UserRepository userRepository;
+
+    private ItemRepository itemRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN")
+                .run("--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        userRepository = context.getBean(UserRepository.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> saveAll() {
+        return transactionTemplate.execute(status -> {
+            List<User> savedUsers = userRepository.saveAllAndFlush(makeUsers());
+            List<Item> savedItems = itemRepository.saveAllAndFlush(makeItems(savedUsers));
+            status.setRollbackOnly();
+            return savedItems;
+        });
+    }
+
+    private List<User> makeUsers() {
+        List<User> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            User user = new User();
+            user.setName("User " + i);
+            user.setEmail("bulk" + i + "@shareit.ru");
+            result.add(user);
+        }
+        return result;
+    }
+
+    private List<Item> makeItems(List<User> savedUsers) {
+        List<Item> result = new ArrayList<>(savedUsers.size());
+        for (User user : savedUsers) {
+            Item item = new Item();
+            item.setName("drill " + user.getId());
+            item.setDescription("Description of the drill of user " + user.getId());
+            item.setAvailable(true);
+            item.setUserId(user.getId());
+            result.add(item);
+        }
+        return result;
+    }
+}
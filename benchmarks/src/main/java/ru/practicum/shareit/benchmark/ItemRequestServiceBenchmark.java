@@ -0,0 +1,27 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import ru.practicum.shareit.request.ItemRequestServiceImpl;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemRequestServiceBenchmark {
+    @Param("20")
+    public int size;
+
+    @Benchmark
+    public List<ItemRequestDto> getItemRequests(ShareItState state) {
+        return state.getBean(ItemRequestServiceImpl.class).getItemRequests(state.getUserId(), 0, size);
+    }
+}
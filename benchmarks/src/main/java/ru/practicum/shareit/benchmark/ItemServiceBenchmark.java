@@ -0,0 +1,35 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemServiceBenchmark {
+    @Param("drill")
+    public String text;
+
+    @Param("20")
+    public int size;
+
+    @Benchmark
+    public List<ItemDto> getItemByUserId(ShareItState state) {
+        return state.getBean(ItemServiceImpl.class).getItemByUserId(state.getUserId(), 0, size);
+    }
+
+    @Benchmark
+    public List<ItemDto> search(ShareItState state) {
+        return state.getBean(ItemServiceImpl.class).search(text, 0, size);
+    }
+}
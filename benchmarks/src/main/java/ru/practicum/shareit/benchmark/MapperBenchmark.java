@@ -0,0 +1,115 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingForItemDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.CommentsMapper;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.CommentsDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
+import ru.practicum.shareit.item.model.Comments;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+    private User user;
+
+    private Item item;
+
+    private Booking booking;
+
+    private Comments comment;
+
+    private ItemRequest itemRequest;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = new User();
+        user.setId(1);
+        user.setName("User");
+        user.setEmail("user@shareit.ru");
+        item = new Item();
+        item.setId(2);
+        item.setName("drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        item.setUserId(3);
+        item.setRequestId(4);
+        booking = new Booking();
+        booking.setId(5);
+        booking.setItem(item);
+        booking.setBooker(user);
+        booking.setStatus(BookingStatus.APPROVED);
+        booking.setStart(now);
+        booking.setEnd(now.plusDays(1));
+        comment = new Comments();
+        comment.setId(6);
+        comment.setItemId(item.getId());
+        comment.setUserId(user.getId());
+        comment.setAuthorName(user.getName());
+        comment.setText("Works fine");
+        comment.setCreated(now);
+        itemRequest = new ItemRequest();
+        itemRequest.setId(7);
+        itemRequest.setDescription("Need a drill");
+        itemRequest.setUserId(user.getId());
+        itemRequest.setCreated(now);
+    }
+
+    @Benchmark
+    public UserDto makeUserDto() {
+        return UserMapper.makeUserDto(user);
+    }
+
+    @Benchmark
+    public ItemDto makeItemDto() {
+        return ItemMapper.makeItemDto(item);
+    }
+
+    @Benchmark
+    public ItemForRequestDto makeItemForRequestDto() {
+        return ItemMapper.makeItemForRequestDto(item);
+    }
+
+    @Benchmark
+    public BookingResponseDto makeBookingResponseDto() {
+        return BookingMapper.makeBookingResponseDto(booking);
+    }
+
+    @Benchmark
+    public BookingForItemDto makeBookingForItemDto() {
+        return BookingMapper.makeBookingForItemDto(booking);
+    }
+
+    @Benchmark
+    public CommentsDto makeCommentDto() {
+        return CommentsMapper.makeCommentDto(comment);
+    }
+
+    @Benchmark
+    public ItemRequestDto makeItemRequestDto() {
+        return ItemRequestMapper.makeItemRequestDto(itemRequest);
+    }
+}
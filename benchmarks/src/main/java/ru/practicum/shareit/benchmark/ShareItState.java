@@ -0,0 +1,155 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestsRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Server context on the in-memory H2 database of the test profile, seeded once per trial.
+ * Every user owns {@code itemsPerUser} items and authors {@code requestsPerUser} requests; every item gets
+ * {@code bookingsPerItem} bookings from other users, spread over past, current and future periods and all statuses.
+ * Server properties (e.g. {@code shareit.search.mode}) can be overridden with {@code -jvmArgs -D...}.
+ */
+@State(Scope.Benchmark)
+public class ShareItState {
+    private static final String[] NAMES = {"drill", "saw", "ladder", "tent", "bike", "kayak", "camera", "projector"};
+
+    private static final BookingStatus[] STATUSES = {BookingStatus.APPROVED, BookingStatus.WAITING,
+            BookingStatus.APPROVED, BookingStatus.REJECTED};
+
+    @Param("200")
+    public int users;
+
+    @Param("5")
+    public int itemsPerUser;
+
+    @Param("10")
+    public int bookingsPerItem;
+
+    @Param("2")
+    public int requestsPerUser;
+
+    private ConfigurableApplicationContext context;
+
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN")
+                .run();
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> seed());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * A seeded user that owns items, books other users' items and sees other users' requests.
+     */
+    public long getUserId() {
+        return userId;
+    }
+
+    private void seed() {
+        List<User> savedUsers = context.getBean(UserRepository.class).saveAll(makeUsers());
+        List<ItemRequest> savedRequests = context.getBean(ItemRequestsRepository.class)
+                .saveAll(makeItemRequests(savedUsers));
+        List<Item> savedItems = context.getBean(ItemRepository.class).saveAll(makeItems(savedUsers, savedRequests));
+        context.getBean(BookingRepository.class).saveAll(makeBookings(savedUsers, savedItems));
+        userId = savedUsers.get(0).getId();
+    }
+
+    private List<User> makeUsers() {
+        List<User> result = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@shareit.ru");
+            result.add(user);
+        }
+        return result;
+    }
+
+    private List<ItemRequest> makeItemRequests(List<User> savedUsers) {
+        List<ItemRequest> result = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < savedUsers.size() * requestsPerUser; i++) {
+            ItemRequest itemRequest = new ItemRequest();
+            itemRequest.setDescription("Need a " + NAMES[i % NAMES.length]);
+            itemRequest.setUserId(savedUsers.get(i % savedUsers.size()).getId());
+            itemRequest.setCreated(now.minusMinutes(i));
+            result.add(itemRequest);
+        }
+        return result;
+    }
+
+    private List<Item> makeItems(List<User> savedUsers, List<ItemRequest> savedRequests) {
+        List<Item> result = new ArrayList<>();
+        for (int i = 0; i < savedUsers.size() * itemsPerUser; i++) {
+            String name = NAMES[i % NAMES.length];
+            Item item = new Item();
+            item.setName(name + " " + i);
+            item.setDescription("Description of the " + name + " number " + i);
+            item.setAvailable(i % 10 != 0);
+            item.setUserId(savedUsers.get(i % savedUsers.size()).getId());
+            if (!savedRequests.isEmpty() && i % 2 == 0) {
+                item.setRequestId(savedRequests.get(i / 2 % savedRequests.size()).getId());
+            }
+            result.add(item);
+        }
+        return result;
+    }
+
+    private List<Booking> makeBookings(List<User> savedUsers, List<Item> savedItems) {
+        List<Booking> result = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < savedItems.size(); i++) {
+            Item item = savedItems.get(i);
+            for (int j = 0; j < bookingsPerItem; j++) {
+                User booker = savedUsers.get((i + j + 1) % savedUsers.size());
+                if (booker.getId() == item.getUserId()) {
+                    continue;
+                }
+                LocalDateTime start = now.plusDays((j % 3 - 1) * 10L + j).minusHours(1);
+                Booking booking = new Booking();
+                booking.setItem(item);
+                booking.setBooker(booker);
+                booking.setStatus(STATUSES[j % STATUSES.length]);
+                booking.setStart(start);
+                booking.setEnd(j % 3 == 1 ? now.plusDays(1) : start.plusHours(2));
+                result.add(booking);
+            }
+        }
+        return result;
+    }
+}
@@ -1,33 +1,55 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ClientHttpConnector connector, ResponseCache responseCache,
+                         MeterRegistry meterRegistry) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .clientConnector(connector)
+                        .build(),
+                responseCache,
+                meterRegistry,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookings(long userId, BookingState state, Integer from, Integer size,
+                                                              String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "size", size,
+                    "cursor", cursor
+            );
+            return get("?state={state}&size={size}&cursor={cursor}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -36,7 +58,16 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsForAllItemsByOwnerId(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingsForAllItemsByOwnerId(long userId, BookingState state, Integer from,
+                                                                                  Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "size", size,
+                    "cursor", cursor
+            );
+            return get("/owner?state={state}&size={size}&cursor={cursor}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -46,15 +77,33 @@ public class BookingClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItems(long userId, List<BookItemRequestDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
     }
 
-    public ResponseEntity<Object> bookingConfirmation(long userId, long bookingId, Boolean approved) {
-        return patch("/" + bookingId + "?approved=" + approved, userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(long userId, Long bookingId, @Nullable String ifNoneMatch) {
+        return getConditional("/" + bookingId, userId, ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookingConfirmation(long userId, long bookingId, Boolean approved) {
+        return patch("/" + bookingId + "?approved=" + approved, userId)
+                .doOnSuccess(response -> responseCache.evict("/items"));
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookingsConfirmation(long userId, List<Long> bookingIds, Long itemId,
+                                                                       Boolean approved) {
+        if (itemId != null) {
+            return patch("?itemId=" + itemId + "&approved=" + approved, userId)
+                    .doOnSuccess(response -> responseCache.evict("/items"));
+        }
+        String ids = bookingIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        return patch("?ids=" + ids + "&approved=" + approved, userId)
+                .doOnSuccess(response -> responseCache.evict("/items"));
     }
 }
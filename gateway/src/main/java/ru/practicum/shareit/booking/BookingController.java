@@ -2,10 +2,14 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.ValidationException;
@@ -13,6 +17,7 @@ import ru.practicum.shareit.exception.ValidationException;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -20,51 +25,82 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                              @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size,
+                cursor);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsForAllItemsByOwnerId(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                                  @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                                  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingsForAllItemsByOwnerId(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                                  @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                                                  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                                  @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookingsForAllItemsByOwnerId(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size,
+                cursor);
+        return bookingClient.getBookingsForAllItemsByOwnerId(userId, state, from, size, cursor);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                           @RequestBody @Valid BookItemRequestDto requestDto) {
         checkEndTime(requestDto);
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                            @RequestBody List<BookItemRequestDto> requestDtos) {
+        if (requestDtos.isEmpty() || requestDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException(String.format("A booking batch must contain from 1 to %s bookings",
+                    MAX_BATCH_SIZE));
+        }
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClient.bookItems(userId, requestDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> bookingConfirmation(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                      @PathVariable long bookingId,
-                                                      @RequestParam Boolean approved) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookingConfirmation(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                      @PathVariable long bookingId,
+                                                                      @RequestParam Boolean approved) {
         log.info("Set approve={} to bookingId={} by userId={}", approved, bookingId, userId);
         return bookingClient.bookingConfirmation(userId, bookingId, approved);
     }
 
+    @PatchMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookingsConfirmation(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                       @RequestParam(required = false) List<Long> ids,
+                                                                       @RequestParam(required = false) Long itemId,
+                                                                       @RequestParam Boolean approved) {
+        if ((ids == null) == (itemId == null)) {
+            throw new ValidationException("Either booking ids or an item id must be given");
+        }
+        log.info("Set approve={} to bookingIds={}, itemId={} by userId={}", approved, ids, itemId, userId);
+        return bookingClient.bookingsConfirmation(userId, ids, itemId, approved);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                             @PathVariable Long bookingId,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                             String ifNoneMatch) {
         log.info("Get booking {}, userId={}", bookingId, userId);
-        return bookingClient.getBooking(userId, bookingId);
+        return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
     }
 
     private void checkEndTime(BookItemRequestDto requestDto) {
@@ -1,94 +1,192 @@
 package ru.practicum.shareit.client;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
 
-    public BaseClient(RestTemplate rest) {
+    private static final String REQUEST_TIMER = "shareit.gateway.client.requests";
+
+    protected final WebClient rest;
+
+    protected final ResponseCache responseCache;
+
+    private final MeterRegistry meterRegistry;
+
+    private final String cachePrefix;
+
+    public BaseClient(WebClient rest, ResponseCache responseCache, MeterRegistry meterRegistry, String cachePrefix) {
         this.rest = rest;
+        this.responseCache = responseCache;
+        this.meterRegistry = meterRegistry;
+        this.cachePrefix = cachePrefix;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * Sends a GET that carries the client's If-None-Match, so that the server can answer 304 Not Modified.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getConditional(String path, Long userId,
+                                                                    @Nullable String ifNoneMatch) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, null, null, ifNoneMatch);
+    }
+
+    /**
+     * Serves a GET from the gateway response cache while the entry is fresh,
+     * revalidates it with If-None-Match once it is stale and stores successful answers.
+     * A client whose If-None-Match matches the answer gets 304 Not Modified instead of the body.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getCached(String path, Long userId,
+                                                               @Nullable String ifNoneMatch) {
+        if (!responseCache.isEnabled()) {
+            return getConditional(path, userId, ifNoneMatch);
+        }
+        String cachePath = cachePrefix + path;
+        ResponseCache.Entry cached = responseCache.get(cachePath, userId);
+        if (cached != null && cached.isFresh()) {
+            return Mono.just(cached.toResponseEntity(ifNoneMatch));
+        }
+        long generation = responseCache.getGeneration();
+        HttpHeaders requestHeaders = defaultHeaders(userId);
+        if (cached != null && cached.getETag() != null) {
+            requestHeaders.setIfNoneMatch(cached.getETag());
+        }
+        return timed(HttpMethod.GET, rest.get()
+                .uri(path)
+                .headers(headers -> headers.addAll(requestHeaders))
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntity(byte[].class))
+                .map(response -> {
+                    if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+                        return responseCache.revalidate(cachePath, userId, generation, cached, response.getHeaders())
+                                .toResponseEntity(ifNoneMatch);
+                    }
+                    ResponseEntity<byte[]> gatewayResponse = ResponseEntity.status(response.getStatusCodeValue())
+                            .headers(endToEndHeaders(response.getHeaders()))
+                            .body(response.getBody());
+                    if (response.getStatusCode() == HttpStatus.OK) {
+                        ResponseCache.Entry entry = responseCache.put(cachePath, userId, generation, gatewayResponse);
+                        if (entry != null) {
+                            return entry.toResponseEntity(ifNoneMatch);
+                        }
+                    }
+                    return new ResponseCache.Entry(gatewayResponse.getStatusCodeValue(), gatewayResponse.getHeaders(),
+                            gatewayResponse.getBody(), 0).toResponseEntity(ifNoneMatch);
+                });
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                          @Nullable Map<String, Object> parameters,
+                                                                          @Nullable T body,
+                                                                          @Nullable String ifNoneMatch) {
+        WebClient.RequestBodySpec request = rest.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        if (body != null) {
+            request.body(BodyInserters.fromValue(body));
+        }
+        return timed(method, request.retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class))
+                .map(BaseClient::prepareGatewayResponse);
+    }
+
+    /**
+     * Times a server exchange up to its response headers, tagged by client, HTTP method and status.
+     */
+    private <T> Mono<ResponseEntity<T>> timed(HttpMethod method, Mono<ResponseEntity<T>> exchange) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return exchange
+                    .doOnSuccess(response -> sample.stop(requestTimer(method,
+                            response != null ? String.valueOf(response.getStatusCodeValue()) : "NONE")))
+                    .doOnError(e -> sample.stop(requestTimer(method, "IO_ERROR")));
+        });
+    }
+
+    private Timer requestTimer(HttpMethod method, String status) {
+        return Timer.builder(REQUEST_TIMER)
+                .description("Gateway to server requests")
+                .tag("client", getClass().getSimpleName())
+                .tag("method", method.name())
+                .tag("status", status)
+                .register(meterRegistry);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -101,17 +199,25 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    private static HttpHeaders endToEndHeaders(HttpHeaders responseHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        responseHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Flux<DataBuffer>> prepareGatewayResponse(ResponseEntity<Flux<DataBuffer>> response) {
+        HttpHeaders headers = endToEndHeaders(response.getHeaders());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCodeValue())
+                .headers(headers);
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (headers.getContentLength() == 0) {
+            return responseBuilder.build();
         }
 
-        return responseBuilder.build();
+        return responseBuilder.body(response.getBody());
     }
 }
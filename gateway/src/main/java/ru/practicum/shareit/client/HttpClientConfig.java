@@ -0,0 +1,44 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerConnectionProvider(
+            @Value("${shareit-server.pool.max-connections:200}") int maxConnections,
+            @Value("${shareit-server.pool.max-pending-acquires:1000}") int maxPendingAcquires,
+            @Value("${shareit-server.pool.acquire-timeout:1s}") Duration acquireTimeout,
+            @Value("${shareit-server.pool.idle-timeout:30s}") Duration idleTimeout) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPendingAcquires)
+                .pendingAcquireTimeout(acquireTimeout)
+                .maxIdleTime(idleTimeout)
+                .evictInBackground(idleTimeout)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector shareitServerConnector(
+            ConnectionProvider shareitServerConnectionProvider,
+            @Value("${shareit-server.pool.connect-timeout:1s}") Duration connectTimeout,
+            @Value("${shareit-server.pool.read-timeout:10s}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create(shareitServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(readTimeout);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,207 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ResponseCache {
+    private final Cache<Key, Entry> cache;
+
+    private final Duration ttl;
+
+    private final boolean enabled;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(@Value("${shareit-gateway.cache.enabled:true}") boolean enabled,
+                         @Value("${shareit-gateway.cache.ttl:30s}") Duration ttl,
+                         @Value("${shareit-gateway.cache.max-size:10000}") long maxSize,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway-responses");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    @Nullable
+    public Entry get(String path, @Nullable Long userId) {
+        return enabled ? cache.getIfPresent(new Key(path, userId)) : null;
+    }
+
+    /**
+     * Stores a successful response unless an eviction happened after {@code generation} was read,
+     * so a read that raced with a write cannot put the old state back.
+     */
+    @Nullable
+    public Entry put(String path, @Nullable Long userId, long generation, ResponseEntity<byte[]> response) {
+        Duration maxAge = maxAge(response.getHeaders());
+        if (!enabled || maxAge == null || this.generation.get() != generation) {
+            return null;
+        }
+        Entry entry = new Entry(response.getStatusCodeValue(), response.getHeaders(), response.getBody(),
+                System.nanoTime() + maxAge.toNanos());
+        cache.put(new Key(path, userId), entry);
+        return entry;
+    }
+
+    /**
+     * Extends the freshness of an entry the server confirmed with 304 Not Modified.
+     */
+    public Entry revalidate(String path, @Nullable Long userId, long generation, Entry entry, HttpHeaders headers) {
+        Duration maxAge = maxAge(headers);
+        Entry refreshed = new Entry(entry.getStatus(), entry.getHeaders(), entry.getBody(),
+                System.nanoTime() + (maxAge != null ? maxAge.toNanos() : 0));
+        if (maxAge != null && this.generation.get() == generation) {
+            cache.put(new Key(path, userId), refreshed);
+        }
+        return refreshed;
+    }
+
+    /**
+     * Drops every cached response for {@code path} and for the paths below it.
+     */
+    public void evict(String path) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.getPath().equals(path) || key.getPath().startsWith(path + "/"));
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns how long a response may be served without asking the server again,
+     * or {@code null} when it must not be stored at all.
+     */
+    @Nullable
+    private Duration maxAge(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return ttl;
+        }
+        Duration maxAge = ttl;
+        for (String directive : cacheControl.toLowerCase().split(",")) {
+            directive = directive.trim();
+            if (directive.equals("no-store")) {
+                return null;
+            } else if (directive.equals("no-cache")) {
+                maxAge = Duration.ZERO;
+            } else if (directive.startsWith("max-age=")) {
+                try {
+                    Duration serverMaxAge = Duration.ofSeconds(Long.parseLong(directive.substring(8)));
+                    if (serverMaxAge.compareTo(maxAge) < 0) {
+                        maxAge = serverMaxAge;
+                    }
+                } catch (NumberFormatException e) {
+                    maxAge = Duration.ZERO;
+                }
+            }
+        }
+        return maxAge;
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final String path;
+        private final Long userId;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        private static final List<String> NOT_MODIFIED_HEADERS = List.of(HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL,
+                HttpHeaders.EXPIRES, HttpHeaders.VARY, HttpHeaders.CONTENT_LOCATION);
+
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final long freshUntil;
+
+        public boolean isFresh() {
+            return System.nanoTime() - freshUntil < 0;
+        }
+
+        @Nullable
+        public String getETag() {
+            return headers.getETag();
+        }
+
+        public ResponseEntity<Flux<DataBuffer>> toResponseEntity() {
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(headers);
+            if (body == null || body.length == 0) {
+                return responseBuilder.build();
+            }
+            return responseBuilder.body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+        }
+
+        /**
+         * Answers 304 Not Modified with the entry's validators when {@code ifNoneMatch} names its ETag,
+         * otherwise the full response.
+         */
+        public ResponseEntity<Flux<DataBuffer>> toResponseEntity(@Nullable String ifNoneMatch) {
+            if (status != HttpStatus.OK.value() || !matches(ifNoneMatch)) {
+                return toResponseEntity();
+            }
+            HttpHeaders notModifiedHeaders = new HttpHeaders();
+            for (String name : NOT_MODIFIED_HEADERS) {
+                List<String> values = headers.get(name);
+                if (values != null) {
+                    notModifiedHeaders.put(name, values);
+                }
+            }
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(notModifiedHeaders).build();
+        }
+
+        private boolean matches(@Nullable String ifNoneMatch) {
+            String eTag = getETag();
+            if (ifNoneMatch == null || eTag == null) {
+                return false;
+            }
+            HttpHeaders conditions = new HttpHeaders();
+            conditions.setIfNoneMatch(ifNoneMatch);
+            for (String candidate : conditions.getIfNoneMatch()) {
+                if (candidate.equals("*") || withoutWeakPrefix(candidate).equals(withoutWeakPrefix(eTag))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String withoutWeakPrefix(String eTag) {
+            return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        }
+    }
+}
@@ -1,45 +1,76 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private static final String REQUESTS_PREFIX = "/requests";
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ClientHttpConnector connector, ResponseCache responseCache,
+                      MeterRegistry meterRegistry) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .clientConnector(connector)
+                        .build(),
+                responseCache,
+                meterRegistry,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> saveNewItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNewItem(long userId, ItemDto itemDto) {
+        return post("", userId, itemDto)
+                .doOnSuccess(response -> {
+                    if (itemDto.getRequestId() > 0) {
+                        responseCache.evict(REQUESTS_PREFIX + "/" + itemDto.getRequestId());
+                    }
+                });
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(long userId, long itemId, ItemDto itemDto) {
+        return patch("" + "/" + itemId, userId, itemDto)
+                .doOnSuccess(response -> {
+                    responseCache.evict(API_PREFIX + "/" + itemId);
+                    evictItemRequest(itemDto.getRequestId());
+                });
     }
 
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
-        return patch("" + "/" + itemId, userId, itemDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemById(long userId, long itemId, @Nullable String ifNoneMatch) {
+        return getCached("" + "/" + itemId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getItemById(long userId, long itemId) {
-        return get("" + "/" + itemId, userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemsByUserId(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemsByUserId(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -47,7 +78,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> search(long userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> search(long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -56,7 +87,16 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> saveNewComment(long userId, long itemId, CommentsDto commentsDto) {
-        return post("/" + itemId + "/comment", userId, commentsDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNewComment(long userId, long itemId, CommentsDto commentsDto) {
+        return post("/" + itemId + "/comment", userId, commentsDto)
+                .doOnSuccess(response -> responseCache.evict(API_PREFIX + "/" + itemId));
+    }
+
+    /**
+     * A patch rarely carries the request id of the item, and the request lists its items,
+     * so every cached request is dropped when the id is not known.
+     */
+    private void evictItemRequest(long requestId) {
+        responseCache.evict(requestId > 0 ? REQUESTS_PREFIX + "/" + requestId : REQUESTS_PREFIX);
     }
 }
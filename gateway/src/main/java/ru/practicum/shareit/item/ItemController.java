@@ -2,16 +2,23 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -22,48 +29,64 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> saveNewItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestBody @Valid ItemDto itemDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNewItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                              @RequestBody @Valid ItemDto itemDto) {
         log.info("Creating item {} by user id {}", itemDto.getName(), userId);
         return itemClient.saveNewItem(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable long itemId,
-                                             @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                             @PathVariable long itemId,
+                                                             @RequestBody ItemDto itemDto) {
         log.info("Updating item id {} by user id {}", itemDto.getId(), userId);
         return itemClient.updateItem(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @PathVariable long itemId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                              @PathVariable long itemId,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                              String ifNoneMatch) {
         log.info("Get item id {} by user id {}", itemId, userId);
-        return itemClient.getItemById(userId, itemId);
+        return itemClient.getItemById(userId, itemId, ifNoneMatch);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                  @PathVariable long itemId,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                                  LocalDateTime from,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                                  LocalDateTime to) {
+        log.info("Get availability of item id {} from {} to {} by user id {}", itemId, from, to, userId);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("The end of the period must be after its start");
+        }
+        return itemClient.getAvailability(userId, itemId, from, to);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Get items by userId={}, from={}, size={}", userId, from, size);
         return itemClient.getItemsByUserId(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @RequestParam(name = "text", required = false) String text,
-                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> search(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                         @RequestParam(name = "text", required = false) String text,
+                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Search items by text={}, userId={}, from={}, size={}", text, userId, from, size);
         return itemClient.search(userId, text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> saveNewComment(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                 @PathVariable long itemId,
-                                                 @RequestBody @Valid CommentsDto commentsDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNewComment(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                 @PathVariable long itemId,
+                                                                 @RequestBody @Valid CommentsDto commentsDto) {
         log.info("Creating comment for itemId={} by userId={}", itemId, userId);
         return itemClient.saveNewComment(userId, itemId, commentsDto);
     }
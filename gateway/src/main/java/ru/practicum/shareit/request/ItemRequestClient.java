@@ -1,13 +1,19 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -17,20 +23,25 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             ClientHttpConnector connector, ResponseCache responseCache,
+                             MeterRegistry meterRegistry) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .clientConnector(connector)
+                        .build(),
+                responseCache,
+                meterRegistry,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> saveNewItemRequest(long userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNewItemRequest(long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getItemRequestByAuthor(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemRequestByAuthor(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -38,7 +49,7 @@ public class ItemRequestClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequests(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemRequests(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -46,7 +57,8 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequestById(long userId, long itemRequestId) {
-        return get("/" + itemRequestId, userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemRequestById(long userId, long itemRequestId,
+                                                                     @Nullable String ifNoneMatch) {
+        return getCached("/" + itemRequestId, userId, ifNoneMatch);
     }
 }
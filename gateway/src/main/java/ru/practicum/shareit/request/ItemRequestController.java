@@ -2,10 +2,14 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -21,32 +25,34 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> saveNewItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                     @RequestBody @Valid ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNewItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                     @RequestBody @Valid ItemRequestDto itemRequestDto) {
         log.info("Creating new request {}, userId={}", itemRequestDto, userId);
         return itemRequestClient.saveNewItemRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemRequestByAuthor(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemRequestByAuthor(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Get requests by authorId={} with from={}, size={}", userId, from, size);
         return itemRequestClient.getItemRequestByAuthor(userId, from, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Get requests with userIf={}, from={}, size={}", userId, from, size);
         return itemRequestClient.getItemRequests(userId, from, size);
     }
 
     @GetMapping("/{itemRequestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                     @PathVariable long itemRequestId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                     @PathVariable long itemRequestId,
+                                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                                     String ifNoneMatch) {
         log.info("Set itemId={} by userId={}", itemRequestId, userId);
-        return itemRequestClient.getItemRequestById(userId, itemRequestId);
+        return itemRequestClient.getItemRequestById(userId, itemRequestId, ifNoneMatch);
     }
 }
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opens a server span per request and passes the trace on to the server with every WebClient call.
+ */
+@Configuration
+@ConditionalOnExpression("'${shareit.tracing.exporter:none}' != 'none'")
+public class GatewayTracingConfig {
+
+    @Bean
+    public TracingWebFilter tracingWebFilter(Tracer tracer) {
+        return new TracingWebFilter(tracer);
+    }
+
+    @Bean
+    public WebClientCustomizer tracingWebClientCustomizer(Tracer tracer) {
+        TracingExchangeFilter filter = new TracingExchangeFilter(tracer);
+        return builder -> builder.filter(filter);
+    }
+}
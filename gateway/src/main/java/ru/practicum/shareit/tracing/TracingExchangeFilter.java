@@ -0,0 +1,36 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Opens a client span for each call to the server, as a child of the request span found in the Reactor context,
+ * and sends it on in the traceparent header. The span ends with the response headers, not the streamed body.
+ */
+@RequiredArgsConstructor
+public class TracingExchangeFilter implements ExchangeFilterFunction {
+    private final Tracer tracer;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            Span parent = context.getOrDefault(Span.class, null);
+            if (parent == null) {
+                return next.exchange(request);
+            }
+            Span span = tracer.startSpan(parent, request.method().name() + " " + request.url().getPath(),
+                    SpanKind.CLIENT);
+            span.setAttribute("http.url", request.url().toString());
+            return next.exchange(ClientRequest.from(request)
+                            .header(Tracer.TRACE_PARENT, span.toTraceParent())
+                            .build())
+                    .doOnNext(response -> span.setAttribute("http.status_code", response.rawStatusCode()))
+                    .doOnError(span::setError)
+                    .doFinally(signal -> tracer.end(span));
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Opens the server span of each request, named after the matched route like http.server.requests,
+ * and puts it into the Reactor context for {@link TracingExchangeFilter}.
+ */
+@RequiredArgsConstructor
+public class TracingWebFilter implements WebFilter, Ordered {
+    private final Tracer tracer;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        if (path.startsWith("/actuator")) {
+            return chain.filter(exchange);
+        }
+        String method = request.getMethodValue();
+        Span span = tracer.startServerSpan(request.getHeaders().getFirst(Tracer.TRACE_PARENT), method + " " + path);
+        return chain.filter(exchange)
+                .doOnError(span::setError)
+                .doFinally(signal -> {
+                    Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    if (pattern != null) {
+                        span.setName(method + " " + pattern);
+                        span.setAttribute("http.route", pattern.toString());
+                    }
+                    span.setAttribute("http.method", method);
+                    span.setAttribute("http.status_code", exchange.getResponse().getRawStatusCode());
+                    tracer.end(span);
+                })
+                .contextWrite(Context.of(Span.class, span));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -1,14 +1,20 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.Map;
@@ -18,36 +24,43 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ClientHttpConnector connector, ResponseCache responseCache,
+                      MeterRegistry meterRegistry) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .clientConnector(connector)
+                        .build(),
+                responseCache,
+                meterRegistry,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> saveNewUser(UserDto userDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNewUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserDto userDto) {
-        return patch("" + "/" + userId, userDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(long userId, UserDto userDto) {
+        return patch("" + "/" + userId, userDto)
+                .doOnSuccess(response -> responseCache.evict(API_PREFIX + "/" + userId));
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
-        return get("" + "/" + userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUserById(long userId, @Nullable String ifNoneMatch) {
+        return getCached("" + "/" + userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> deleteUser(long userId) {
-        return delete("" + "/" + userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteUser(long userId) {
+        return delete("" + "/" + userId)
+                .doOnSuccess(response -> responseCache.evictAll());
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookings(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
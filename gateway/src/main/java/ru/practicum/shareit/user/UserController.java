@@ -2,10 +2,14 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
@@ -19,32 +23,34 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllUsers() {
         log.info("Get all users");
         return userClient.getAllUsers();
     }
 
     @PostMapping
-    public ResponseEntity<Object> saveNewUser(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNewUser(@RequestBody @Valid UserDto userDto) {
         log.info("Creating users {}", userDto.getName());
         return userClient.saveNewUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable long userId,
-                                             @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(@PathVariable long userId,
+                                                             @RequestBody UserDto userDto) {
         log.info("Updating users id {}", userDto.getId());
         return userClient.updateUser(userId, userDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUserById(@PathVariable long userId,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                              String ifNoneMatch) {
         log.info("Get user id {}", userId);
-        return userClient.getUserById(userId);
+        return userClient.getUserById(userId, ifNoneMatch);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteUser(@PathVariable long userId) {
         log.info("Delete user id {}", userId);
         return userClient.deleteUser(userId);
     }
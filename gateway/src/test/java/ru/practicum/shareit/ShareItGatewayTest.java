@@ -0,0 +1,73 @@
+package ru.practicum.shareit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.QueueDispatcher;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.client.ResponseCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the whole gateway against a {@link MockWebServer} standing in for the ShareIt server.
+ * The server is shared by every test class so that the cached application context keeps pointing at it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+public abstract class ShareItGatewayTest {
+    protected static final MockWebServer SERVER = new MockWebServer();
+
+    static {
+        try {
+            SERVER.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Autowired
+    protected WebTestClient webClient;
+
+    @Autowired
+    protected ResponseCache responseCache;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getPort());
+    }
+
+    @BeforeEach
+    void resetServer() throws InterruptedException {
+        SERVER.setDispatcher(new QueueDispatcher());
+        while (SERVER.takeRequest(1, TimeUnit.MILLISECONDS) != null) {
+            // drop requests left over by a previous test
+        }
+        responseCache.evictAll();
+    }
+
+    protected static MockResponse json(int status, String body) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(body);
+    }
+
+    protected static RecordedRequest takeRequest() throws InterruptedException {
+        return SERVER.takeRequest(5, TimeUnit.SECONDS);
+    }
+
+    protected static RecordedRequest pollRequest() throws InterruptedException {
+        return SERVER.takeRequest(100, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,205 @@
+package ru.practicum.shareit.booking;
+
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.ShareItGatewayTest;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+class BookingControllerTest extends ShareItGatewayTest {
+
+    @Test
+    void getBookingsForwardsUserIdAndParametersTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "[]"));
+
+        webClient.get()
+                .uri("/bookings?state=past&from=20&size=10")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+
+        RecordedRequest request = takeRequest();
+        assertThat(request.getMethod(), equalTo("GET"));
+        assertThat(request.getPath(), equalTo("/bookings?state=PAST&from=20&size=10"));
+        assertThat(request.getHeader("X-Sharer-User-Id"), equalTo("7"));
+    }
+
+    @Test
+    void getBookingsWithCursorForwardsCursorTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "[]"));
+
+        webClient.get()
+                .uri("/bookings/owner?size=5&cursor=abc")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(takeRequest().getPath(), equalTo("/bookings/owner?state=ALL&size=5&cursor=abc"));
+    }
+
+    @Test
+    void getBookingsWithNegativeFromTest() throws InterruptedException {
+        webClient.get()
+                .uri("/bookings?from=-1")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void getBookingsWithZeroSizeTest() throws InterruptedException {
+        webClient.get()
+                .uri("/bookings/owner?size=0")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void getBookingsWithoutUserIdTest() throws InterruptedException {
+        webClient.get()
+                .uri("/bookings")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void bookItemWithEndBeforeStartTest() throws InterruptedException {
+        webClient.post()
+                .uri("/bookings")
+                .header("X-Sharer-User-Id", "7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of(
+                        "itemId", 1,
+                        "start", LocalDateTime.now().plusDays(2).toString(),
+                        "end", LocalDateTime.now().plusDays(1).toString()))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("The booking end time must be after then start time");
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void bookItemWithStartInPastTest() throws InterruptedException {
+        webClient.post()
+                .uri("/bookings")
+                .header("X-Sharer-User-Id", "7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of(
+                        "itemId", 1,
+                        "start", LocalDateTime.now().minusDays(1).toString(),
+                        "end", LocalDateTime.now().plusDays(1).toString()))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void bookItemsWithEmptyBatchTest() throws InterruptedException {
+        webClient.post()
+                .uri("/bookings/batch")
+                .header("X-Sharer-User-Id", "7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[]")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("A booking batch must contain from 1 to 100 bookings");
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void bookItemForwardsBodyTest() throws InterruptedException {
+        SERVER.enqueue(json(201, "{\"id\":3}"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        webClient.post()
+                .uri("/bookings")
+                .header("X-Sharer-User-Id", "7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of(
+                        "itemId", 1,
+                        "start", start.toString(),
+                        "end", start.plusDays(1).toString()))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().jsonPath("$.id").isEqualTo(3);
+
+        RecordedRequest request = takeRequest();
+        assertThat(request.getMethod(), equalTo("POST"));
+        assertThat(request.getPath(), equalTo("/bookings"));
+        assertThat(request.getHeader("X-Sharer-User-Id"), equalTo("7"));
+        assertThat(request.getBody().readUtf8(), containsString("\"itemId\":1"));
+    }
+
+    @Test
+    void bookingsConfirmationWithoutIdsAndItemIdTest() throws InterruptedException {
+        webClient.patch()
+                .uri("/bookings?approved=true")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Either booking ids or an item id must be given");
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void getBookingPassesNotFoundThroughTest() throws InterruptedException {
+        SERVER.enqueue(json(404, "{\"error\":\"Booking id 99 not found\"}"));
+
+        webClient.get()
+                .uri("/bookings/99")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().jsonPath("$.error").isEqualTo("Booking id 99 not found");
+
+        assertThat(takeRequest().getPath(), equalTo("/bookings/99"));
+    }
+
+    @Test
+    void bookingConfirmationPassesConflictThroughTest() throws InterruptedException {
+        SERVER.enqueue(json(409, "{\"error\":\"The resource was modified concurrently, please retry\"}"));
+
+        webClient.patch()
+                .uri("/bookings/5?approved=true")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.error").isEqualTo("The resource was modified concurrently, please retry");
+
+        RecordedRequest request = takeRequest();
+        assertThat(request.getMethod(), equalTo("PATCH"));
+        assertThat(request.getPath(), equalTo("/bookings/5?approved=true"));
+    }
+
+    @Test
+    void getBookingsPassesServerErrorThroughTest() {
+        SERVER.enqueue(json(500, "{\"error\":\"boom\"}"));
+
+        webClient.get()
+                .uri("/bookings")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().is5xxServerError()
+                .expectBody().jsonPath("$.error").isEqualTo("boom");
+    }
+}
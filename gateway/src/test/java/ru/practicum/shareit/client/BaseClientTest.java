@@ -0,0 +1,313 @@
+package ru.practicum.shareit.client;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.ShareItGatewayTest;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class BaseClientTest extends ShareItGatewayTest {
+    private static final String CONTENT_TYPE = "application/vnd.shareit+json;charset=ISO-8859-1";
+
+    private static final String REQUEST_TIMER = "shareit.gateway.client.requests";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void makeAndSendRequestPassesResponseThroughTest() {
+        byte[] body = randomBytes();
+        SERVER.enqueue(responseWithHopByHopHeaders(202, body));
+
+        EntityExchangeResult<byte[]> result = webClient.get()
+                .uri("/bookings/1")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody(byte[].class)
+                .returnResult();
+
+        assertPassedThrough(result, body);
+    }
+
+    @Test
+    void getCachedPassesResponseThroughTest() {
+        byte[] body = randomBytes();
+        SERVER.enqueue(responseWithHopByHopHeaders(200, body));
+
+        EntityExchangeResult<byte[]> result = webClient.get()
+                .uri("/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class)
+                .returnResult();
+
+        assertPassedThrough(result, body);
+    }
+
+    @Test
+    void getCachedPassesErrorResponseThroughTest() {
+        byte[] body = randomBytes();
+        SERVER.enqueue(responseWithHopByHopHeaders(404, body));
+
+        EntityExchangeResult<byte[]> result = webClient.get()
+                .uri("/users/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(byte[].class)
+                .returnResult();
+
+        assertPassedThrough(result, body);
+    }
+
+    @Test
+    void getCachedServesFreshEntryWithoutServerTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Drill\"}"));
+
+        getItem().expectBody().jsonPath("$.name").isEqualTo("Drill");
+        getItem().expectBody().jsonPath("$.name").isEqualTo("Drill");
+
+        assertThat(takeRequest(), notNullValue());
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void getCachedDoesNotShareEntriesBetweenUsersTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Drill\"}"));
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Drill\",\"lastBooking\":null}"));
+
+        getItem();
+        webClient.get()
+                .uri("/items/1")
+                .header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(takeRequest().getHeader("X-Sharer-User-Id"), equalTo("1"));
+        assertThat(takeRequest().getHeader("X-Sharer-User-Id"), equalTo("2"));
+    }
+
+    @Test
+    void getCachedRevalidatesExpiredEntryTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Drill\"}")
+                .setHeader(HttpHeaders.ETAG, "\"v1\"")
+                .setHeader(HttpHeaders.CACHE_CONTROL, "max-age=1"));
+        SERVER.enqueue(new MockResponse()
+                .setResponseCode(304)
+                .setHeader(HttpHeaders.ETAG, "\"v1\"")
+                .setHeader(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        getItem();
+        assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH), nullValue());
+        TimeUnit.MILLISECONDS.sleep(1100);
+
+        getItem()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().jsonPath("$.name").isEqualTo("Drill");
+        assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH), equalTo("\"v1\""));
+
+        getItem().expectBody().jsonPath("$.name").isEqualTo("Drill");
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void getCachedReplacesEntryChangedOnServerTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Drill\"}")
+                .setHeader(HttpHeaders.ETAG, "\"v1\"")
+                .setHeader(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Saw\"}")
+                .setHeader(HttpHeaders.ETAG, "\"v2\""));
+
+        getItem().expectBody().jsonPath("$.name").isEqualTo("Drill");
+        getItem().expectBody().jsonPath("$.name").isEqualTo("Saw");
+        getItem().expectBody().jsonPath("$.name").isEqualTo("Saw");
+
+        assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH), nullValue());
+        assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH), equalTo("\"v1\""));
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void getCachedAnswersNotModifiedWhenClientETagMatchesTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Drill\"}")
+                .setHeader(HttpHeaders.ETAG, "\"v1\"")
+                .setHeader(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        getItem("\"v1\"")
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"v1\"")
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=60")
+                .expectBody().isEmpty();
+        assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH), nullValue());
+
+        getItem("W/\"v0\", \"v1\"").expectStatus().isNotModified();
+        getItem("\"v0\"")
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("Drill");
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void getForwardsClientIfNoneMatchTest() throws InterruptedException {
+        SERVER.enqueue(new MockResponse()
+                .setResponseCode(304)
+                .setHeader(HttpHeaders.ETAG, "\"3\""));
+
+        webClient.get()
+                .uri("/bookings/1")
+                .header("X-Sharer-User-Id", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody().isEmpty();
+
+        assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH), equalTo("\"3\""));
+    }
+
+    @Test
+    void getCachedDropsResponseFetchedBeforeEvictionTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Drill\"}")
+                .setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Saw\"}"));
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Saw\"}"));
+
+        CompletableFuture<String> slowRead = CompletableFuture.supplyAsync(() -> getItem()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody());
+        RecordedRequest read = takeRequest();
+        webClient.patch()
+                .uri("/items/1")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Saw"))
+                .exchange()
+                .expectStatus().isOk();
+        assertThat(slowRead.join(), equalTo("{\"id\":1,\"name\":\"Drill\"}"));
+
+        getItem().expectBody().jsonPath("$.name").isEqualTo("Saw");
+
+        assertThat(read.getMethod(), equalTo("GET"));
+        assertThat(takeRequest().getMethod(), equalTo("PATCH"));
+        assertThat(takeRequest().getMethod(), equalTo("GET"));
+    }
+
+    @Test
+    void requestsAreTimedByStatusTest() {
+        long okBefore = timerCount("BookingClient", "GET", "200");
+        long notFoundBefore = timerCount("BookingClient", "GET", "404");
+        long cachedBefore = timerCount("ItemClient", "GET", "200");
+        SERVER.enqueue(json(200, "{\"id\":1}"));
+        SERVER.enqueue(json(404, "{\"error\":\"Booking id 2 not found\"}"));
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Drill\"}"));
+
+        webClient.get()
+                .uri("/bookings/1")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk();
+        webClient.get()
+                .uri("/bookings/2")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isNotFound();
+        getItem();
+        getItem();
+
+        assertThat(timerCount("BookingClient", "GET", "200"), equalTo(okBefore + 1));
+        assertThat(timerCount("BookingClient", "GET", "404"), equalTo(notFoundBefore + 1));
+        assertThat(timerCount("ItemClient", "GET", "200"), equalTo(cachedBefore + 1));
+    }
+
+    @Test
+    void failedExchangesAreTimedAsIoErrorTest() {
+        long ioErrorsBefore = timerCount("BookingClient", "PATCH", "IO_ERROR");
+        SERVER.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST);
+            }
+        });
+
+        webClient.patch()
+                .uri("/bookings/1?approved=true")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().is5xxServerError();
+
+        assertThat(timerCount("BookingClient", "PATCH", "IO_ERROR"), equalTo(ioErrorsBefore + 1));
+    }
+
+    private long timerCount(String client, String method, String status) {
+        Timer timer = meterRegistry.find(REQUEST_TIMER)
+                .tag("client", client)
+                .tag("method", method)
+                .tag("status", status)
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private static MockResponse responseWithHopByHopHeaders(int status, byte[] body) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE)
+                .setHeader("X-Request-Source", "server")
+                .setHeader("Keep-Alive", "timeout=5")
+                .setHeader(HttpHeaders.PROXY_AUTHENTICATE, "Basic")
+                .setHeader(HttpHeaders.TRAILER, "Expires")
+                .setBody(new Buffer().write(body));
+    }
+
+    private static void assertPassedThrough(EntityExchangeResult<byte[]> result, byte[] body) {
+        HttpHeaders headers = result.getResponseHeaders();
+        assertThat(result.getResponseBody(), equalTo(body));
+        assertThat(headers.getFirst(HttpHeaders.CONTENT_TYPE), equalTo(CONTENT_TYPE));
+        assertThat(headers.getContentLength(), equalTo((long) body.length));
+        assertThat(headers.getFirst("X-Request-Source"), equalTo("server"));
+        assertThat(headers.getFirst("Keep-Alive"), nullValue());
+        assertThat(headers.getFirst(HttpHeaders.PROXY_AUTHENTICATE), nullValue());
+        assertThat(headers.getFirst(HttpHeaders.TRAILER), nullValue());
+    }
+
+    private static byte[] randomBytes() {
+        byte[] bytes = new byte[4096];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    private WebTestClient.ResponseSpec getItem() {
+        return webClient.get()
+                .uri("/items/1")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private WebTestClient.ResponseSpec getItem(String ifNoneMatch) {
+        return webClient.get()
+                .uri("/items/1")
+                .header("X-Sharer-User-Id", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch)
+                .exchange();
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class ResponseCacheTest {
+    private final ResponseCache cache = new ResponseCache(true, Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+
+    @Test
+    void getReturnsStoredEntryOfSameUserTest() {
+        cache.put("/items/1", 1L, cache.getGeneration(), response("item", null));
+
+        ResponseCache.Entry entry = cache.get("/items/1", 1L);
+
+        assertThat(entry, notNullValue());
+        assertThat(entry.isFresh(), equalTo(true));
+        assertThat(new String(entry.getBody(), StandardCharsets.UTF_8), equalTo("item"));
+        assertThat(cache.get("/items/1", 2L), nullValue());
+        assertThat(cache.get("/items/2", 1L), nullValue());
+    }
+
+    @Test
+    void entryExpiresAfterServerMaxAgeTest() {
+        cache.put("/items/1", 1L, cache.getGeneration(), response("item", "max-age=0"));
+
+        ResponseCache.Entry entry = cache.get("/items/1", 1L);
+
+        assertThat(entry, notNullValue());
+        assertThat(entry.isFresh(), equalTo(false));
+    }
+
+    @Test
+    void entryExpiresAfterTtlTest() throws InterruptedException {
+        ResponseCache shortCache = new ResponseCache(true, Duration.ofMillis(50), 100, new SimpleMeterRegistry());
+        shortCache.put("/items/1", 1L, shortCache.getGeneration(), response("item", "max-age=60"));
+        assertThat(shortCache.get("/items/1", 1L).isFresh(), equalTo(true));
+
+        Thread.sleep(100);
+
+        assertThat(shortCache.get("/items/1", 1L), nullValue());
+    }
+
+    @Test
+    void noStoreResponseIsNotStoredTest() {
+        ResponseCache.Entry entry = cache.put("/items/1", 1L, cache.getGeneration(), response("item", "no-store"));
+
+        assertThat(entry, nullValue());
+        assertThat(cache.get("/items/1", 1L), nullValue());
+    }
+
+    @Test
+    void malformedMaxAgeMakesEntryStaleTest() {
+        cache.put("/items/1", 1L, cache.getGeneration(), response("item", "max-age=soon"));
+
+        assertThat(cache.get("/items/1", 1L).isFresh(), equalTo(false));
+    }
+
+    @Test
+    void revalidateRefreshesStaleEntryTest() {
+        cache.put("/items/1", 1L, cache.getGeneration(), response("item", "no-cache"));
+        ResponseCache.Entry stale = cache.get("/items/1", 1L);
+        HttpHeaders notModified = new HttpHeaders();
+        notModified.setCacheControl("max-age=60");
+
+        ResponseCache.Entry refreshed = cache.revalidate("/items/1", 1L, cache.getGeneration(), stale, notModified);
+
+        assertThat(refreshed.isFresh(), equalTo(true));
+        assertThat(refreshed.getBody(), equalTo(stale.getBody()));
+        assertThat(cache.get("/items/1", 1L).isFresh(), equalTo(true));
+    }
+
+    @Test
+    void putAfterEvictionDuringFetchIsDroppedTest() {
+        long generation = cache.getGeneration();
+
+        cache.evict("/items/1");
+        ResponseCache.Entry entry = cache.put("/items/1", 1L, generation, response("old item", null));
+
+        assertThat(entry, nullValue());
+        assertThat(cache.get("/items/1", 1L), nullValue());
+    }
+
+    @Test
+    void revalidateAfterEvictionDuringFetchIsNotStoredTest() {
+        cache.put("/items/1", 1L, cache.getGeneration(), response("item", "no-cache"));
+        ResponseCache.Entry stale = cache.get("/items/1", 1L);
+        long generation = cache.getGeneration();
+
+        cache.evict("/items/2");
+        cache.revalidate("/items/1", 1L, generation, stale, new HttpHeaders());
+
+        assertThat(cache.get("/items/1", 1L).isFresh(), equalTo(false));
+    }
+
+    @Test
+    void evictDropsPathAndSubpathsOnlyTest() {
+        cache.put("/items/1", 1L, cache.getGeneration(), response("item", null));
+        cache.put("/items/1/comments", 1L, cache.getGeneration(), response("comments", null));
+        cache.put("/items/10", 1L, cache.getGeneration(), response("other item", null));
+
+        cache.evict("/items/1");
+
+        assertThat(cache.get("/items/1", 1L), nullValue());
+        assertThat(cache.get("/items/1/comments", 1L), nullValue());
+        assertThat(cache.get("/items/10", 1L), notNullValue());
+    }
+
+    @Test
+    void disabledCacheStoresNothingTest() {
+        ResponseCache disabled = new ResponseCache(false, Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+
+        assertThat(disabled.put("/items/1", 1L, disabled.getGeneration(), response("item", null)), nullValue());
+        assertThat(disabled.get("/items/1", 1L), nullValue());
+    }
+
+    private static ResponseEntity<byte[]> response(String body, String cacheControl) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag("\"" + body.hashCode() + "\"");
+        if (cacheControl != null) {
+            builder.header(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        return builder.body(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
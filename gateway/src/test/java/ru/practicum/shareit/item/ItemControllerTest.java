@@ -0,0 +1,235 @@
+package ru.practicum.shareit.item;
+
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.ShareItGatewayTest;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+class ItemControllerTest extends ShareItGatewayTest {
+
+    @Test
+    void saveNewItemWithoutNameTest() throws InterruptedException {
+        webClient.post()
+                .uri("/items")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("description", "Drill", "available", true))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void saveNewItemWithoutAvailableTest() throws InterruptedException {
+        webClient.post()
+                .uri("/items")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Drill", "description", "Drill"))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void searchWithNegativeFromTest() throws InterruptedException {
+        webClient.get()
+                .uri("/items/search?text=drill&from=-1")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void searchForwardsUserIdAndParametersTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "[{\"id\":1,\"name\":\"Drill\"}]"));
+
+        webClient.get()
+                .uri("/items/search?text=drill&size=5")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].name").isEqualTo("Drill");
+
+        RecordedRequest request = takeRequest();
+        assertThat(request.getPath(), equalTo("/items/search?text=drill&from=0&size=5"));
+        assertThat(request.getHeader("X-Sharer-User-Id"), equalTo("1"));
+    }
+
+    @Test
+    void updateItemForwardsBodyTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":2,\"name\":\"Saw\"}"));
+
+        webClient.patch()
+                .uri("/items/2")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Saw"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("Saw");
+
+        RecordedRequest request = takeRequest();
+        assertThat(request.getMethod(), equalTo("PATCH"));
+        assertThat(request.getPath(), equalTo("/items/2"));
+        assertThat(request.getHeader("X-Sharer-User-Id"), equalTo("1"));
+    }
+
+    @Test
+    void updateItemPassesForbiddenThroughTest() {
+        SERVER.enqueue(json(404, "{\"error\":\"User id 3 is not the owner of item id 2\"}"));
+
+        webClient.patch()
+                .uri("/items/2")
+                .header("X-Sharer-User-Id", "3")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Saw"))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("User id 3 is not the owner of item id 2");
+    }
+
+    @Test
+    void saveNewCommentPassesBadRequestThroughTest() {
+        SERVER.enqueue(json(400, "{\"error\":\"User id 1 has not booked item id 2\"}"));
+
+        webClient.post()
+                .uri("/items/2/comment")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("text", "Nice"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("User id 1 has not booked item id 2");
+    }
+
+    @Test
+    void updateItemEvictsCachedItemRequestTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":5,\"items\":[{\"id\":2,\"name\":\"Drill\"}]}"));
+        SERVER.enqueue(json(200, "{\"id\":2,\"name\":\"Saw\",\"requestId\":5}"));
+        SERVER.enqueue(json(200, "{\"id\":5,\"items\":[{\"id\":2,\"name\":\"Saw\"}]}"));
+
+        getItemRequest().jsonPath("$.items[0].name").isEqualTo("Drill");
+        webClient.patch()
+                .uri("/items/2")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Saw"))
+                .exchange()
+                .expectStatus().isOk();
+        getItemRequest().jsonPath("$.items[0].name").isEqualTo("Saw");
+
+        assertThat(takeRequest().getPath(), equalTo("/requests/5"));
+        assertThat(takeRequest().getPath(), equalTo("/items/2"));
+        assertThat(takeRequest().getPath(), equalTo("/requests/5"));
+    }
+
+    @Test
+    void saveNewItemWithRequestEvictsCachedItemRequestTest() {
+        SERVER.enqueue(json(200, "{\"id\":5,\"items\":[]}"));
+        SERVER.enqueue(json(200, "{\"id\":2,\"name\":\"Drill\",\"requestId\":5}"));
+        SERVER.enqueue(json(200, "{\"id\":5,\"items\":[{\"id\":2,\"name\":\"Drill\"}]}"));
+
+        getItemRequest().jsonPath("$.items.length()").isEqualTo(0);
+        saveNewItem(Map.of("name", "Drill", "description", "Drill", "available", true, "requestId", 5));
+        getItemRequest().jsonPath("$.items.length()").isEqualTo(1);
+    }
+
+    @Test
+    void saveNewItemWithoutRequestKeepsCachedItemRequestTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":5,\"items\":[]}"));
+        SERVER.enqueue(json(200, "{\"id\":2,\"name\":\"Drill\"}"));
+
+        getItemRequest();
+        saveNewItem(Map.of("name", "Drill", "description", "Drill", "available", true));
+        getItemRequest().jsonPath("$.items.length()").isEqualTo(0);
+
+        assertThat(takeRequest().getPath(), equalTo("/requests/5"));
+        assertThat(takeRequest().getPath(), equalTo("/items"));
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void getAvailabilityForwardsPeriodTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "[{\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\"}]"));
+
+        webClient.get()
+                .uri("/items/2/availability?from=2030-01-01T10:00:00&to=2030-01-02T10:00:00")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].end").isEqualTo("2030-01-02T10:00:00");
+
+        RecordedRequest request = takeRequest();
+        assertThat(request.getMethod(), equalTo("GET"));
+        assertThat(request.getRequestUrl().encodedPath(), equalTo("/items/2/availability"));
+        assertThat(request.getRequestUrl().queryParameter("from"), equalTo("2030-01-01T10:00"));
+        assertThat(request.getRequestUrl().queryParameter("to"), equalTo("2030-01-02T10:00"));
+        assertThat(request.getHeader("X-Sharer-User-Id"), equalTo("1"));
+    }
+
+    @Test
+    void getAvailabilityWithEndBeforeStartTest() throws InterruptedException {
+        webClient.get()
+                .uri("/items/2/availability?from=2030-01-02T10:00:00&to=2030-01-01T10:00:00")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("The end of the period must be after its start");
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void getAvailabilityWithoutPeriodTest() throws InterruptedException {
+        webClient.get()
+                .uri("/items/2/availability?from=2030-01-01T10:00:00")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void getAvailabilityPassesNotFoundThroughTest() {
+        SERVER.enqueue(json(404, "{\"error\":\"Item id 99 not found\"}"));
+
+        webClient.get()
+                .uri("/items/99/availability?from=2030-01-01T10:00:00&to=2030-01-02T10:00:00")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("Item id 99 not found");
+    }
+
+    private WebTestClient.BodyContentSpec getItemRequest() {
+        return webClient.get()
+                .uri("/requests/5")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody();
+    }
+
+    private void saveNewItem(Map<String, Object> item) {
+        webClient.post()
+                .uri("/items")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(item)
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
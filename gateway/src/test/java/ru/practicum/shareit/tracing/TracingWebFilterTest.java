@@ -0,0 +1,124 @@
+package ru.practicum.shareit.tracing;
+
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.ShareItGatewayTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+@TestPropertySource(properties = "shareit.tracing.exporter=memory")
+class TracingWebFilterTest extends ShareItGatewayTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private static final String CALLER_SPAN_ID = "00f067aa0ba902b7";
+
+    @Autowired
+    private InMemorySpanExporter exporter;
+
+    @BeforeEach
+    void clearSpans() {
+        exporter.clear();
+    }
+
+    @Test
+    void traceIsPassedFromCallerThroughGatewayToServerTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":3}"));
+
+        webClient.get()
+                .uri("/bookings/3")
+                .header(Tracer.TRACE_PARENT, "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk();
+
+        RecordedRequest request = takeRequest();
+        Map<SpanKind, Span> spans = spansByKind(2);
+        Span serverSpan = spans.get(SpanKind.SERVER);
+        Span clientSpan = spans.get(SpanKind.CLIENT);
+        assertThat(serverSpan.getTraceId(), equalTo(TRACE_ID));
+        assertThat(serverSpan.getParentId(), equalTo(CALLER_SPAN_ID));
+        assertThat(serverSpan.getName(), equalTo("GET /bookings/{bookingId}"));
+        assertThat(serverSpan.getAttributes().get("http.status_code"), equalTo(200));
+        assertThat(clientSpan.getTraceId(), equalTo(TRACE_ID));
+        assertThat(clientSpan.getParentId(), equalTo(serverSpan.getSpanId()));
+        assertThat(clientSpan.getName(), equalTo("GET /bookings/3"));
+        assertThat(clientSpan.getAttributes().get("http.status_code"), equalTo(200));
+        assertThat(request.getHeader(Tracer.TRACE_PARENT),
+                equalTo("00-" + TRACE_ID + "-" + clientSpan.getSpanId() + "-01"));
+    }
+
+    @Test
+    void requestWithoutTraceParentStartsNewTraceTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":3}"));
+
+        webClient.get()
+                .uri("/bookings/3")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk();
+
+        RecordedRequest request = takeRequest();
+        Map<SpanKind, Span> spans = spansByKind(2);
+        Span serverSpan = spans.get(SpanKind.SERVER);
+        assertThat(serverSpan.getTraceId(), matchesPattern("[0-9a-f]{32}"));
+        assertThat(serverSpan.getParentId(), nullValue());
+        assertThat(request.getHeader(Tracer.TRACE_PARENT), equalTo("00-" + serverSpan.getTraceId() + "-"
+                + spans.get(SpanKind.CLIENT).getSpanId() + "-01"));
+    }
+
+    @Test
+    void notSampledTraceIsPassedOnButNotExportedTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":3}"));
+
+        webClient.get()
+                .uri("/bookings/3")
+                .header(Tracer.TRACE_PARENT, "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-00")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk();
+
+        String traceParent = takeRequest().getHeader(Tracer.TRACE_PARENT);
+        assertThat(traceParent, matchesPattern("00-" + TRACE_ID + "-[0-9a-f]{16}-00"));
+        assertThat(traceParent, not(equalTo("00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-00")));
+        assertThat(exporter.getSpans(), empty());
+    }
+
+    @Test
+    void requestRejectedByGatewayHasNoClientSpanTest() throws InterruptedException {
+        webClient.get()
+                .uri("/bookings?size=0")
+                .header(Tracer.TRACE_PARENT, "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        Span serverSpan = spansByKind(1).get(SpanKind.SERVER);
+        assertThat(serverSpan.getParentId(), equalTo(CALLER_SPAN_ID));
+        assertThat(serverSpan.getAttributes().get("http.status_code"), equalTo(400));
+        assertThat(pollRequest(), nullValue());
+    }
+
+    private Map<SpanKind, Span> spansByKind(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (exporter.getSpans().size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        List<Span> spans = exporter.getSpans();
+        assertThat(spans, hasSize(count));
+        return spans.stream().collect(Collectors.toMap(Span::getKind, Function.identity()));
+    }
+}
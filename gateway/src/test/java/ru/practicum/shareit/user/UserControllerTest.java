@@ -0,0 +1,87 @@
+package ru.practicum.shareit.user;
+
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.ShareItGatewayTest;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+class UserControllerTest extends ShareItGatewayTest {
+
+    @Test
+    void saveNewUserWithWrongEmailTest() throws InterruptedException {
+        webClient.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Name", "email", "not-an-email"))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void saveNewUserWithoutNameTest() throws InterruptedException {
+        webClient.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", "e@mail.ru"))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(pollRequest(), nullValue());
+    }
+
+    @Test
+    void saveNewUserForwardsBodyTest() throws InterruptedException {
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Name\",\"email\":\"e@mail.ru\"}"));
+
+        webClient.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Name", "email", "e@mail.ru"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.id").isEqualTo(1);
+
+        RecordedRequest request = takeRequest();
+        assertThat(request.getMethod(), equalTo("POST"));
+        assertThat(request.getPath(), equalTo("/users"));
+        assertThat(request.getHeader("X-Sharer-User-Id"), nullValue());
+        assertThat(request.getBody().readUtf8(), containsString("\"email\":\"e@mail.ru\""));
+    }
+
+    @Test
+    void saveNewUserPassesConflictThroughTest() {
+        SERVER.enqueue(json(409, "{\"error\":\"Email e@mail.ru is already used\"}"));
+
+        webClient.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Name", "email", "e@mail.ru"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.error").isEqualTo("Email e@mail.ru is already used");
+    }
+
+    @Test
+    void deleteUserPassesNoContentThroughTest() throws InterruptedException {
+        SERVER.enqueue(json(200, ""));
+
+        webClient.delete()
+                .uri("/users/4")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().isEmpty();
+
+        RecordedRequest request = takeRequest();
+        assertThat(request.getMethod(), equalTo("DELETE"));
+        assertThat(request.getPath(), equalTo("/users/4"));
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Read endpoints replayed by the workload; each builds a randomised request against the seeded population.
+ */
+public enum Endpoint {
+    SEARCH("search") {
+        @Override
+        String path(ThreadLocalRandom random) {
+            String text = Population.WORDS[random.nextInt(Population.WORDS.length)];
+            return "/items/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8)
+                    + "&from=0&size=" + PAGE_SIZE;
+        }
+    },
+    BOOKINGS("bookings") {
+        @Override
+        String path(ThreadLocalRandom random) {
+            return "/bookings?state=" + STATES[random.nextInt(STATES.length)] + "&from=0&size=" + PAGE_SIZE;
+        }
+    },
+    OWNER_BOOKINGS("owner") {
+        @Override
+        String path(ThreadLocalRandom random) {
+            return "/bookings/owner?state=" + STATES[random.nextInt(STATES.length)] + "&from=0&size=" + PAGE_SIZE;
+        }
+    },
+    ALL_REQUESTS("requests") {
+        @Override
+        String path(ThreadLocalRandom random) {
+            return "/requests/all?from=0&size=" + PAGE_SIZE;
+        }
+    };
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+    private final String name;
+
+    Endpoint(String name) {
+        this.name = name;
+    }
+
+    abstract String path(ThreadLocalRandom random);
+
+    public String getName() {
+        return name;
+    }
+
+    public static Endpoint fromName(String name) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.name.equalsIgnoreCase(name)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + name);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds) and error count of one endpoint over the measured interval.
+ */
+public class EndpointStats {
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_LATENCY, 3);
+
+    private final LongAdder errors = new LongAdder();
+
+    void record(long latencyNanos, boolean error) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_LATENCY));
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Minimal JSON client for the gateway API, shared by the population generator and the workload threads.
+ */
+public class GatewayClient {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public GatewayClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public JsonNode post(String path, Long userId, Object body) throws IOException, InterruptedException {
+        return send("POST", path, userId, body);
+    }
+
+    public JsonNode patch(String path, Long userId) throws IOException, InterruptedException {
+        return send("PATCH", path, userId, null);
+    }
+
+    /**
+     * Sends a GET and drains the body, returning the status code; used on the measured path.
+     */
+    public int get(String path, long userId) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header(USER_HEADER, String.valueOf(userId))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private JsonNode send(String method, String path, Long userId, Object body) throws IOException,
+            InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json");
+        if (userId != null) {
+            builder.header(USER_HEADER, String.valueOf(userId));
+        }
+        HttpRequest.BodyPublisher publisher = body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        HttpResponse<String> response = httpClient.send(builder.method(method, publisher).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(String.format("%s %s returned %s: %s", method, path,
+                    response.statusCode(), response.body()));
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
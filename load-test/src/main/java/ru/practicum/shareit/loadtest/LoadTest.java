@@ -0,0 +1,64 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Map;
+
+/**
+ * Entry point: starts the server and gateway (unless {@code loadtest.gateway-url} points at running ones), seeds the
+ * population, replays the endpoint mix and prints throughput and latency percentiles per endpoint. Full percentile
+ * distributions are written to {@code <endpoint>.hgrm} files in the output directory.
+ */
+public class LoadTest {
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        System.out.println("Load test: " + config);
+        try (ShareItProcesses processes = new ShareItProcesses()) {
+            if (config.isManaged()) {
+                processes.start(config);
+            }
+            GatewayClient client = new GatewayClient(config.getGatewayUrl());
+            long seedStart = System.nanoTime();
+            Population population = new PopulationGenerator(client, config).generate();
+            System.out.printf("Seeded %s in %.1f s%n", population, (System.nanoTime() - seedStart) / 1e9);
+            Map<Endpoint, EndpointStats> stats = new WorkloadRunner(client, config, population).run();
+            report(config, stats);
+        }
+    }
+
+    private static void report(LoadTestConfig config, Map<Endpoint, EndpointStats> stats) throws IOException {
+        double seconds = config.getDuration().toMillis() / 1000.0;
+        Files.createDirectories(config.getOutput());
+        System.out.printf("%n%-10s %9s %7s %9s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().getHistogram();
+            total.add(histogram);
+            totalErrors += entry.getValue().getErrors();
+            printRow(entry.getKey().getName(), histogram, entry.getValue().getErrors(), seconds);
+            try (PrintStream out = new PrintStream(config.getOutput()
+                    .resolve(entry.getKey().getName() + ".hgrm").toFile())) {
+                histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        printRow("total", total, totalErrors, seconds);
+        System.out.println("Percentile distributions (ms) written to " + config.getOutput().toAbsolutePath());
+    }
+
+    private static void printRow(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(),
+                errors, histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties.
+ */
+@Getter
+public class LoadTestConfig {
+    private final Path serverJar;
+    private final Path gatewayJar;
+    private final Path output;
+    private final String gatewayUrl;
+    private final int serverPort;
+    private final int gatewayPort;
+    private final String dbUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final int users;
+    private final int itemsPerUser;
+    private final int requestsPerUser;
+    private final int bookingsPerUser;
+    private final int commentsPercent;
+    private final int threads;
+    private final double rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Endpoint, Integer> mix;
+
+    private LoadTestConfig() {
+        serverJar = Path.of(property("server-jar", "server/target/shareit-server-0.0.1-SNAPSHOT.jar"));
+        gatewayJar = Path.of(property("gateway-jar", "gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar"));
+        output = Path.of(property("output", "load-test/target/loadtest"));
+        serverPort = Integer.parseInt(property("server-port", "19090"));
+        gatewayPort = Integer.parseInt(property("gateway-port", "18080"));
+        gatewayUrl = property("gateway-url", "");
+        dbUrl = property("db-url", "");
+        dbUser = property("db-user", "root");
+        dbPassword = property("db-password", "root");
+        users = Integer.parseInt(property("users", "200"));
+        itemsPerUser = Integer.parseInt(property("items-per-user", "5"));
+        requestsPerUser = Integer.parseInt(property("requests-per-user", "1"));
+        bookingsPerUser = Integer.parseInt(property("bookings-per-user", "10"));
+        commentsPercent = Integer.parseInt(property("comments-percent", "20"));
+        threads = Integer.parseInt(property("threads", "16"));
+        rate = Double.parseDouble(property("rate", "0"));
+        warmup = parseDuration(property("warmup", "10s"));
+        duration = parseDuration(property("duration", "30s"));
+        mix = parseMix(property("mix", "search=4,bookings=3,owner=2,requests=1"));
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+
+    /**
+     * Whether the harness starts the server and gateway itself rather than using a running gateway.
+     */
+    public boolean isManaged() {
+        return gatewayUrl.isEmpty();
+    }
+
+    public String getGatewayUrl() {
+        return isManaged() ? "http://localhost:" + gatewayPort : gatewayUrl;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("users=%s, itemsPerUser=%s, requestsPerUser=%s, bookingsPerUser=%s, commentsPercent=%s, " +
+                        "threads=%s, rate=%s, warmup=%s, duration=%s, mix=%s, db=%s", users, itemsPerUser,
+                requestsPerUser, bookingsPerUser, commentsPercent, threads, rate > 0 ? rate + "/s" : "closed loop",
+                warmup, duration, mix, dbUrl.isEmpty() ? "h2" : dbUrl);
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Wrong mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.fromName(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The endpoint mix is empty");
+        }
+        return weights;
+    }
+}
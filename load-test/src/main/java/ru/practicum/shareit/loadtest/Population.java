@@ -0,0 +1,41 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ids of the seeded entities that the workload draws its requests from.
+ */
+@Getter
+public class Population {
+    static final String[] WORDS = {"drill", "saw", "ladder", "tent", "bike", "kayak", "camera", "projector",
+            "hammer", "grill", "speaker", "scooter"};
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    private final List<Long> itemIds = new ArrayList<>();
+
+    private final List<Long> itemOwnerIds = new ArrayList<>();
+
+    private final List<Long> requestIds = new ArrayList<>();
+
+    private int bookings;
+
+    private int comments;
+
+    void addBookings(int count) {
+        bookings += count;
+    }
+
+    void addComment() {
+        comments++;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s users, %s items, %s requests, %s bookings, %s comments", userIds.size(),
+                itemIds.size(), requestIds.size(), bookings, comments);
+    }
+}
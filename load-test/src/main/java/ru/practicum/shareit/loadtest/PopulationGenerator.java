@@ -0,0 +1,149 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeds users, item requests, items, bookings and comments through the gateway API.
+ * Bookings get a mix of periods (past, current and future) and are then approved or rejected per item by its owner,
+ * so every booking state has data; the booker of an ended approved booking may leave a comment.
+ */
+@RequiredArgsConstructor
+public class PopulationGenerator {
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final int START_DELAY_SECONDS = 5;
+
+    private final GatewayClient client;
+
+    private final LoadTestConfig config;
+
+    private final Random random = new Random(42);
+
+    public Population generate() throws IOException, InterruptedException {
+        Population population = new Population();
+        for (int i = 0; i < config.getUsers(); i++) {
+            JsonNode user = client.post("/users", null, Map.of(
+                    "name", "User " + i,
+                    "email", "user" + i + "@loadtest.ru"));
+            population.getUserIds().add(user.get("id").asLong());
+        }
+        for (long userId : population.getUserIds()) {
+            for (int i = 0; i < config.getRequestsPerUser(); i++) {
+                JsonNode request = client.post("/requests", userId, Map.of(
+                        "description", "Need a " + randomWord()));
+                population.getRequestIds().add(request.get("id").asLong());
+            }
+        }
+        List<Boolean> available = new ArrayList<>();
+        for (long userId : population.getUserIds()) {
+            for (int i = 0; i < config.getItemsPerUser(); i++) {
+                int index = population.getItemIds().size();
+                String word = Population.WORDS[index % Population.WORDS.length];
+                Map<String, Object> item = new HashMap<>();
+                item.put("name", word + " " + index);
+                item.put("description", "A " + word + " in good condition, number " + index);
+                item.put("available", index % 10 != 0);
+                if (!population.getRequestIds().isEmpty() && index % 3 == 0) {
+                    List<Long> requestIds = population.getRequestIds();
+                    item.put("requestId", requestIds.get(random.nextInt(requestIds.size())));
+                }
+                population.getItemIds().add(client.post("/items", userId, item).get("id").asLong());
+                population.getItemOwnerIds().add(userId);
+                available.add(index % 10 != 0);
+            }
+        }
+        List<long[]> endedBookings = seedBookings(population, available);
+        Thread.sleep(START_DELAY_SECONDS * 2 * 1000L);
+        for (long[] booking : endedBookings) {
+            if (random.nextInt(100) >= config.getCommentsPercent()) {
+                continue;
+            }
+            try {
+                client.post("/items/" + booking[1] + "/comment", booking[0], Map.of(
+                        "text", "Rented this " + randomWord() + " substitute, worked fine"));
+                population.addComment();
+            } catch (IllegalStateException e) {
+                // the booking overlapped an approved one and stayed WAITING
+            }
+        }
+        return population;
+    }
+
+    /**
+     * Returns booker and item ids of the bookings that end during seeding.
+     */
+    private List<long[]> seedBookings(Population population, List<Boolean> available) throws IOException,
+            InterruptedException {
+        List<long[]> endedBookings = new ArrayList<>();
+        Set<Integer> bookedItems = new LinkedHashSet<>();
+        for (long userId : population.getUserIds()) {
+            List<Map<String, Object>> entries = new ArrayList<>();
+            List<long[]> ended = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+            for (int j = 0; j < config.getBookingsPerUser() && population.getItemIds().size() > 1; j++) {
+                int index = random.nextInt(population.getItemIds().size());
+                if (population.getItemOwnerIds().get(index) == userId || !available.get(index)) {
+                    continue;
+                }
+                LocalDateTime start;
+                LocalDateTime end;
+                switch (j % 4) {
+                    case 0:
+                        start = now.plusDays(1 + j);
+                        end = start.plusDays(1);
+                        break;
+                    case 1:
+                        start = now.plusSeconds(START_DELAY_SECONDS);
+                        end = now.plusDays(30);
+                        break;
+                    case 2:
+                        start = now.plusSeconds(START_DELAY_SECONDS);
+                        end = start.plusSeconds(1);
+                        ended.add(new long[]{userId, population.getItemIds().get(index)});
+                        break;
+                    default:
+                        start = now.plusDays(30 + j);
+                        end = start.plusDays(3);
+                }
+                entries.add(Map.of(
+                        "itemId", population.getItemIds().get(index),
+                        "start", start.format(DATE_TIME),
+                        "end", end.format(DATE_TIME)));
+                bookedItems.add(index);
+            }
+            for (int from = 0; from < entries.size(); from += BATCH_SIZE) {
+                JsonNode results = client.post("/bookings/batch", userId,
+                        entries.subList(from, Math.min(from + BATCH_SIZE, entries.size())));
+                for (JsonNode result : results) {
+                    if (result.hasNonNull("booking")) {
+                        population.addBookings(1);
+                    }
+                }
+            }
+            endedBookings.addAll(ended);
+        }
+        for (int index : bookedItems) {
+            client.patch("/bookings?itemId=" + population.getItemIds().get(index) + "&approved=" + (index % 4 != 3),
+                    population.getItemOwnerIds().get(index));
+        }
+        return endedBookings;
+    }
+
+    private String randomWord() {
+        return Population.WORDS[random.nextInt(Population.WORDS.length)];
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the packaged server and gateway as child processes, logging to files in the output directory.
+ * They cannot share the harness JVM: both scan {@code ru.practicum.shareit} and ship their own application.properties.
+ */
+public class ShareItProcesses implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final List<Process> processes = new ArrayList<>();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    public void start(LoadTestConfig config) throws IOException, InterruptedException {
+        start(config, List.of());
+    }
+
+    /**
+     * Starts both applications with {@code args} added to the command line of each.
+     */
+    public void start(LoadTestConfig config, List<String> args) throws IOException, InterruptedException {
+        Files.createDirectories(config.getOutput());
+        List<String> serverArgs = new ArrayList<>(List.of(
+                "--server.port=" + config.getServerPort(),
+                "--logging.level.root=WARN"));
+        serverArgs.addAll(args);
+        if (config.getDbUrl().isEmpty()) {
+            serverArgs.add("--spring.profiles.active=test");
+        } else {
+            serverArgs.add("--spring.datasource.url=" + config.getDbUrl());
+            serverArgs.add("--spring.datasource.username=" + config.getDbUser());
+            serverArgs.add("--spring.datasource.password=" + config.getDbPassword());
+        }
+        launch(config.getServerJar(), serverArgs, config.getOutput().resolve("server.log"));
+        awaitHttp("http://localhost:" + config.getServerPort() + "/actuator/health");
+        List<String> gatewayArgs = new ArrayList<>(List.of(
+                "--server.port=" + config.getGatewayPort(),
+                "--shareit-server.url=http://localhost:" + config.getServerPort(),
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=WARN"));
+        gatewayArgs.addAll(args);
+        launch(config.getGatewayJar(), gatewayArgs, config.getOutput().resolve("gateway.log"));
+        awaitHttp("http://localhost:" + config.getGatewayPort() + "/actuator/health");
+    }
+
+    @Override
+    public void close() {
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            try {
+                process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void launch(Path jar, List<String> args, Path log) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar + " not found, run mvn package first");
+        }
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-jar", jar.toString()));
+        command.addAll(args);
+        processes.add(new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start());
+    }
+
+    private void awaitHttp(String url) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).build();
+        while (System.nanoTime() < deadline) {
+            for (Process process : processes) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("A ShareIt process exited with code " + process.exitValue());
+                }
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(url + " did not come up within " + STARTUP_TIMEOUT);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Replays the weighted endpoint mix from {@code threads} workers as random seeded users.
+ * Without a rate every worker sends back to back (closed loop). With {@code rate} requests per second the workers
+ * follow a fixed schedule and latency is measured from the scheduled send time, so a stalled server is not
+ * hidden by the workers waiting on it (coordinated omission).
+ */
+@RequiredArgsConstructor
+public class WorkloadRunner {
+    private final GatewayClient client;
+
+    private final LoadTestConfig config;
+
+    private final Population population;
+
+    public Map<Endpoint, EndpointStats> run() throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        config.getMix().keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+        Endpoint[] wheel = config.getMix().entrySet().stream()
+                .flatMap(e -> IntStream.range(0, e.getValue()).mapToObj(i -> e.getKey()))
+                .toArray(Endpoint[]::new);
+        long start = System.nanoTime();
+        long measureFrom = start + config.getWarmup().toNanos();
+        long stopAt = measureFrom + config.getDuration().toNanos();
+        long interval = config.getRate() > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(config.getThreads()) / config.getRate())
+                : 0;
+        ExecutorService executor = Executors.newFixedThreadPool(config.getThreads());
+        try {
+            List<Future<?>> workers = IntStream.range(0, config.getThreads())
+                    .mapToObj(worker -> executor.submit(() -> work(wheel, stats,
+                            start + worker * interval / config.getThreads(), interval, measureFrom, stopAt)))
+                    .collect(Collectors.toList());
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load worker failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return stats;
+    }
+
+    private void work(Endpoint[] wheel, Map<Endpoint, EndpointStats> stats, long firstSend, long interval,
+                      long measureFrom, long stopAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long scheduled = firstSend;
+        while (true) {
+            if (interval > 0) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                scheduled = System.nanoTime();
+            }
+            if (scheduled >= stopAt) {
+                return;
+            }
+            Endpoint endpoint = wheel[random.nextInt(wheel.length)];
+            long userId = population.getUserIds().get(random.nextInt(population.getUserIds().size()));
+            boolean error;
+            try {
+                error = client.get(endpoint.path(random), userId) / 100 != 2;
+            } catch (IOException e) {
+                error = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (scheduled >= measureFrom) {
+                stats.get(endpoint).record(System.nanoTime() - scheduled, error);
+            }
+            scheduled += interval;
+        }
+    }
+}
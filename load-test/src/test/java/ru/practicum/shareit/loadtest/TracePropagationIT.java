@@ -0,0 +1,120 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Sends a request with a traceparent header to the packaged gateway and follows the trace
+ * through the spans both applications keep in memory.
+ */
+class TracePropagationIT {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private static final String CALLER_SPAN_ID = "00f067aa0ba902b7";
+
+    private static final ShareItProcesses PROCESSES = new ShareItProcesses();
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newHttpClient();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static LoadTestConfig config;
+
+    @BeforeAll
+    static void startShareIt() throws IOException, InterruptedException {
+        config = LoadTestConfig.fromSystemProperties();
+        PROCESSES.start(config, List.of("--shareit.tracing.exporter=memory"));
+    }
+
+    @AfterAll
+    static void stopShareIt() {
+        PROCESSES.close();
+    }
+
+    @Test
+    void traceIsPassedFromGatewayToServerTest() throws IOException, InterruptedException {
+        GatewayClient client = new GatewayClient(config.getGatewayUrl());
+        long userId = client.post("/users", null, Map.of("name", "Traced", "email", "traced@mail.ru"))
+                .get("id").asLong();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(config.getGatewayUrl() + "/users/" + userId))
+                .header("traceparent", "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01")
+                .GET()
+                .build();
+        assertThat(HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode(), equalTo(200));
+
+        List<JsonNode> gatewaySpans = spans(config.getGatewayPort(), 2);
+        List<JsonNode> serverSpans = spans(config.getServerPort(), 2);
+        JsonNode gatewayServerSpan = find(gatewaySpans, "SERVER");
+        JsonNode gatewayClientSpan = find(gatewaySpans, "CLIENT");
+        JsonNode serverSpan = find(serverSpans, "SERVER");
+        assertThat(gatewayServerSpan.get("service").asText(), equalTo("shareit-gateway"));
+        assertThat(gatewayServerSpan.get("parentId").asText(), equalTo(CALLER_SPAN_ID));
+        assertThat(gatewayServerSpan.get("name").asText(), equalTo("GET /users/{userId}"));
+        assertThat(gatewayClientSpan.get("parentId").asText(), equalTo(gatewayServerSpan.get("spanId").asText()));
+        assertThat(serverSpan.get("service").asText(), equalTo("shareit-server"));
+        assertThat(serverSpan.get("parentId").asText(), equalTo(gatewayClientSpan.get("spanId").asText()));
+        assertThat(serverSpan.get("name").asText(), equalTo("GET /users/{userId}"));
+        assertThat(children(serverSpans, serverSpan), not(empty()));
+    }
+
+    /**
+     * Waits for at least {@code count} spans of the test trace, since a request span is exported
+     * after its response has been written.
+     */
+    private static List<JsonNode> spans(int port, int count) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + "/actuator/spans?traceId=" + TRACE_ID))
+                .GET()
+                .build();
+        List<JsonNode> spans = new ArrayList<>();
+        for (int attempt = 0; attempt < 50 && spans.size() < count; attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(100);
+            }
+            spans.clear();
+            OBJECT_MAPPER.readTree(HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString()).body())
+                    .forEach(spans::add);
+        }
+        return spans;
+    }
+
+    private static JsonNode find(List<JsonNode> spans, String kind) {
+        List<JsonNode> found = new ArrayList<>();
+        for (JsonNode span : spans) {
+            if (span.get("kind").asText().equals(kind) && span.get("traceId").asText().equals(TRACE_ID)) {
+                found.add(span);
+            }
+        }
+        assertThat(found, hasSize(1));
+        return found.get(0);
+    }
+
+    private static List<JsonNode> children(List<JsonNode> spans, JsonNode parent) {
+        List<JsonNode> children = new ArrayList<>();
+        for (JsonNode span : spans) {
+            if (span.get("parentId").asText().equals(parent.get("spanId").asText())) {
+                children.add(span);
+            }
+        }
+        return children;
+    }
+}
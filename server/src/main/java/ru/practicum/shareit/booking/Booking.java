@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_id_seq")
+    @SequenceGenerator(name = "bookings_id_seq", sequenceName = "bookings_id_seq", allocationSize = 50)
     private long id;
     @ManyToOne
     @JoinColumn(name = "BOOKER_ID")
@@ -31,5 +32,7 @@ public class Booking {
     private LocalDateTime start;
     @Column(name = "END_DATE")
     private LocalDateTime end;
+    @Version
+    private long version;
 
 }
@@ -2,8 +2,11 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
@@ -20,6 +23,8 @@ import java.util.Map;
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     private final Map<String, BookingState> bookingStates = new HashMap<>();
@@ -30,6 +35,12 @@ public class BookingController {
         return bookingService.saveNewBooking(bookerId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> saveNewBookings(@RequestHeader("X-Sharer-User-Id") long bookerId,
+                                                       @RequestBody List<BookingRequestDto> bookingDtos) {
+        return bookingService.saveNewBookings(bookerId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingResponseDto bookingConfirmation(@RequestHeader("X-Sharer-User-Id") long ownerId,
                                                   @PathVariable long bookingId,
@@ -37,27 +48,66 @@ public class BookingController {
         return bookingService.bookingConfirmation(ownerId, bookingId, approved);
     }
 
+    @PatchMapping
+    public List<BookingResponseDto> bookingsConfirmation(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                         @RequestParam(required = false) List<Long> ids,
+                                                         @RequestParam(required = false) Long itemId,
+                                                         @RequestParam Boolean approved) {
+        return bookingService.bookingsConfirmation(ownerId, ids, itemId, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDto getBookingById(@RequestHeader("X-Sharer-User-Id") long bookerId,
-                                             @PathVariable long bookingId) {
+                                             @PathVariable long bookingId,
+                                             WebRequest request) {
+        if (request.checkNotModified(bookingService.getBookingETag(bookerId, bookingId))) {
+            return null;
+        }
         return bookingService.getBookingById(bookerId, bookingId);
     }
 
     @GetMapping
-    public List<BookingResponseDto> getBookingsByBookerId(@RequestHeader("X-Sharer-User-Id") long bookerId,
-                                                          @RequestParam(required = false) String state,
-                                                          @RequestParam(required = false) Integer from,
-                                                          @RequestParam(required = false) Integer size) {
-        return bookingService.getBookingsByBookerId(bookerId, state, from, size);
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByBookerId(
+            @RequestHeader("X-Sharer-User-Id") long bookerId,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) Integer from,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return withNextCursor(bookingService.getBookingsByBookerIdAfter(bookerId, state, cursor, size), size);
+        }
+        return withNextCursor(bookingService.getBookingsByBookerId(bookerId, state, from, size), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getBookingsForAllItemsByOwnerId(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                                    @RequestParam(required = false) String state,
-                                                                    @RequestParam(required = false) Integer from,
-                                                                    @RequestParam(required = false) Integer size) {
+    public ResponseEntity<List<BookingResponseDto>> getBookingsForAllItemsByOwnerId(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) Integer from,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
         fillMap();
-        return bookingService.getBookingsForAllItemsByOwnerId(userId, bookingStates.get(state), from, size);
+        if (cursor != null) {
+            return withNextCursor(bookingService.getBookingsForAllItemsByOwnerIdAfter(userId, bookingStates.get(state),
+                    cursor, size), size);
+        }
+        return withNextCursor(bookingService.getBookingsForAllItemsByOwnerId(userId, bookingStates.get(state), from,
+                size), size);
+    }
+
+    /**
+     * A full page carries the cursor of its last booking, so the client can go on with {@code cursor=}
+     * from an offset page as well as from a cursor page.
+     */
+    private ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> page, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty() && page.size() == size) {
+            BookingResponseDto last = page.get(page.size() - 1);
+            if (last.getStart() != null) {
+                response.header(NEXT_CURSOR_HEADER, new BookingCursor(last.getStart(), last.getId()).toString());
+            }
+        }
+        return response.body(page);
     }
 
     private Map<String, BookingState> fillMap() {
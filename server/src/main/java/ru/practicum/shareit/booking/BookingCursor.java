@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+@Data
+public class BookingCursor {
+    private static final String SEPARATOR = "_";
+
+    private final LocalDateTime start;
+    private final long id;
+
+    public static BookingCursor parse(String cursor) {
+        int separatorIndex = cursor.lastIndexOf(SEPARATOR);
+        if (separatorIndex < 0) {
+            throw new IllegalArgumentException("Unknown cursor: " + cursor);
+        }
+        try {
+            return new BookingCursor(LocalDateTime.parse(cursor.substring(0, separatorIndex)),
+                    Long.parseLong(cursor.substring(separatorIndex + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown cursor: " + cursor);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return start + SEPARATOR + id;
+    }
+}
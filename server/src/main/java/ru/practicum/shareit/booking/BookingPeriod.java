@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * The period an item is booked for, read without loading the booking's item and booker.
+ */
+@Value
+public class BookingPeriod {
+    long itemId;
+    LocalDateTime start;
+    LocalDateTime end;
+
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && end.isAfter(otherStart);
+    }
+}
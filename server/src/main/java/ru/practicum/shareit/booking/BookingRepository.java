@@ -2,46 +2,185 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-
+    /**
+     * Indexes on {@code bookings} the finders below are planned on: the booker pages walk
+     * {@code (booker_id, start_date)} and {@code (booker_id, status, start_date)}, the last and next bookings and the
+     * overlap checks probe {@code (item_id, status, start_date)} and {@code (item_id, status, end_date)}, the
+     * {@code findFirstByItem_Id...} finders and the owner pages per item use {@code (item_id, start_date)} and
+     * {@code (item_id, end_date)}.
+     */
+    List<String> INDEXES = List.of("ix_bookings_booker_start", "ix_bookings_booker_status_start",
+            "ix_bookings_item_start", "ix_bookings_item_end", "ix_bookings_item_status_start",
+            "ix_bookings_item_status_end");
+
+    String AFTER_CURSOR = "(b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) ";
+
+    String CURSOR_ORDER = "ORDER BY b.start DESC, b.id DESC";
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.id = ?1")
+    Optional<Booking> findWithItemAndBookerById(long bookingId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.userId = ?1 AND b.id IN ?2 AND b.status = ?3 ORDER BY b.start")
+    List<Booking> findByOwnerIdAndIdIn(long ownerId, Collection<Long> bookingIds, BookingStatus status);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.userId = ?1 AND b.item.id = ?2 AND b.status = ?3 ORDER BY b.start")
+    List<Booking> findByOwnerIdAndItemId(long ownerId, long itemId, BookingStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = ?4, b.version = b.version + 1 " +
+            "WHERE b.id IN ?1 AND b.status = ?3 AND b.item.id IN (SELECT i.id FROM Item i WHERE i.userId = ?2)")
+    int updateStatus(Collection<Long> bookingIds, long ownerId, BookingStatus status, BookingStatus newStatus);
+
+    @Query("SELECT b.booker.id AS bookerId, b.item.userId AS ownerId, b.version AS version, " +
+            "b.item.version AS itemVersion, b.booker.version AS bookerVersion FROM Booking b WHERE b.id = ?1")
+    Optional<BookingVersion> findVersionById(long bookingId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByBookerId(long bookerId);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     Page<Booking> findByBookerId(long bookerId, Pageable pageable);
 
-    @Query(value = "SELECT * from bookings where BOOKER_ID = ?1 " +
-            "and start_date < ?2 and END_DATE > ?2 ORDER BY START_DATE DESC", nativeQuery = true)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = ?1 " +
+            "AND b.start < ?2 AND b.end > ?2 " + CURSOR_ORDER)
     Page<Booking> findCurrentBookingsByBookerId(long bookerId, LocalDateTime now, Pageable pageable);
 
-    @Query(value = "SELECT * from bookings where BOOKER_ID = ? " +
-            "and start_date > ? ORDER BY START_DATE DESC", nativeQuery = true)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = ?1 " +
+            "AND b.start > ?2 " + CURSOR_ORDER)
     Page<Booking> findFutureBookingsByBookerId(long bookerId, LocalDateTime now, Pageable pageable);
 
-    @Query(value = "SELECT * from bookings where BOOKER_ID = ? " +
-            "and end_date < ? ORDER BY START_DATE DESC", nativeQuery = true)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = ?1 " +
+            "AND b.end < ?2 " + CURSOR_ORDER)
     Page<Booking> findPastBookingsByBookerId(long bookerId, LocalDateTime now, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     Page<Booking> findBookingByBooker_IdAndStatusIs(long bookerId, BookingStatus status, Pageable pageable);
 
-    Page<Booking> findByItem_userIdAndEndAfterAndStartBeforeOrderByStartDesc(long userId, LocalDateTime now1,
-                                                                             LocalDateTime now2, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Page<Booking> findByItem_userIdAndEndAfterAndStartBeforeOrderByStartDescIdDesc(long userId, LocalDateTime now1,
+                                                                                   LocalDateTime now2,
+                                                                                   Pageable pageable);
 
-    Page<Booking> findByItem_userIdAndStartAfterOrderByStartDesc(long userId, LocalDateTime now, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Page<Booking> findByItem_userIdAndStartAfterOrderByStartDescIdDesc(long userId, LocalDateTime now,
+                                                                       Pageable pageable);
 
-    Page<Booking> findByItem_userIdAndEndBeforeOrderByStartDesc(long userId, LocalDateTime now, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Page<Booking> findByItem_userIdAndEndBeforeOrderByStartDescIdDesc(long userId, LocalDateTime now,
+                                                                      Pageable pageable);
 
-    Page<Booking> findByItem_UserIdAndStatusOrderByStartDesc(long userId, BookingStatus status, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Page<Booking> findByItem_UserIdAndStatusOrderByStartDescIdDesc(long userId, BookingStatus status,
+                                                                   Pageable pageable);
 
-    Page<Booking> findByItem_UserIdOrderByStartDesc(long userId, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Page<Booking> findByItem_UserIdOrderByStartDescIdDesc(long userId, Pageable pageable);
 
-    List<Booking> findByItem_IdAndEndIsBeforeOrderByEndDesc(long itemId, LocalDateTime end);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findFirstByItem_IdAndStatusAndEndIsBeforeOrderByEndDesc(long itemId, BookingStatus status,
+                                                                              LocalDateTime end);
 
-    List<Booking> findByItem_IdAndStartIsAfterOrderByStartDesc(long itemId, LocalDateTime start);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findFirstByItem_IdAndStatusAndStartIsAfterOrderByStartAsc(long itemId, BookingStatus status,
+                                                                                LocalDateTime start);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findBookingsByBookerId(long bookerId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = ?1 AND " + AFTER_CURSOR + CURSOR_ORDER)
+    List<Booking> findByBookerIdAfter(long bookerId, LocalDateTime start, long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = ?1 AND " + AFTER_CURSOR +
+            "AND b.start < ?4 AND b.end > ?4 " + CURSOR_ORDER)
+    List<Booking> findCurrentByBookerIdAfter(long bookerId, LocalDateTime start, long id, LocalDateTime now,
+                                             Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = ?1 AND " + AFTER_CURSOR +
+            "AND b.start > ?4 " + CURSOR_ORDER)
+    List<Booking> findFutureByBookerIdAfter(long bookerId, LocalDateTime start, long id, LocalDateTime now,
+                                            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = ?1 AND " + AFTER_CURSOR +
+            "AND b.end < ?4 " + CURSOR_ORDER)
+    List<Booking> findPastByBookerIdAfter(long bookerId, LocalDateTime start, long id, LocalDateTime now,
+                                          Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = ?1 AND " + AFTER_CURSOR +
+            "AND b.status = ?4 " + CURSOR_ORDER)
+    List<Booking> findByBookerIdAndStatusAfter(long bookerId, LocalDateTime start, long id, BookingStatus status,
+                                               Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.userId = ?1 AND " + AFTER_CURSOR + CURSOR_ORDER)
+    List<Booking> findByOwnerIdAfter(long userId, LocalDateTime start, long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.userId = ?1 AND " + AFTER_CURSOR +
+            "AND b.start < ?4 AND b.end > ?4 " + CURSOR_ORDER)
+    List<Booking> findCurrentByOwnerIdAfter(long userId, LocalDateTime start, long id, LocalDateTime now,
+                                            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.userId = ?1 AND " + AFTER_CURSOR +
+            "AND b.start > ?4 " + CURSOR_ORDER)
+    List<Booking> findFutureByOwnerIdAfter(long userId, LocalDateTime start, long id, LocalDateTime now,
+                                           Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.userId = ?1 AND " + AFTER_CURSOR +
+            "AND b.end < ?4 " + CURSOR_ORDER)
+    List<Booking> findPastByOwnerIdAfter(long userId, LocalDateTime start, long id, LocalDateTime now,
+                                         Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.userId = ?1 AND " + AFTER_CURSOR +
+            "AND b.status = ?4 " + CURSOR_ORDER)
+    List<Booking> findByOwnerIdAndStatusAfter(long userId, LocalDateTime start, long id, BookingStatus status,
+                                              Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.item.id IN ?1 AND b.status = ?2 AND b.end = (SELECT MAX(l.end) FROM Booking l " +
+            "WHERE l.item.id = b.item.id AND l.status = ?2 AND l.end < ?3)")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.item.id IN ?1 AND b.status = ?2 AND b.start = (SELECT MIN(n.start) FROM Booking n " +
+            "WHERE n.item.id = b.item.id AND n.status = ?2 AND n.start > ?3)")
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
+
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN TRUE ELSE FALSE END FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.status = ?2 AND b.start < ?4 AND b.end > ?3 AND b.id <> ?5")
+    boolean existsOverlapping(long itemId, BookingStatus status, LocalDateTime start, LocalDateTime end,
+                              long excludedBookingId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingPeriod(b.item.id, b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.status = ?2 AND b.start < ?4 AND b.end > ?3 ORDER BY b.start")
+    List<BookingPeriod> findOverlappingPeriods(long itemId, BookingStatus status, LocalDateTime from,
+                                               LocalDateTime to);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingPeriod(b.item.id, b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id IN ?1 AND b.status = ?2 AND b.start < ?4 AND b.end > ?3")
+    List<BookingPeriod> findOverlappingPeriodsByItemIds(Collection<Long> itemIds, BookingStatus status,
+                                                        LocalDateTime from, LocalDateTime to);
 }
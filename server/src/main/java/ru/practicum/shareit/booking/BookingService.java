@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
@@ -8,11 +9,22 @@ import java.util.List;
 public interface BookingService {
     BookingResponseDto saveNewBooking(long bookerId, BookingRequestDto bookingDto);
 
+    List<BookingBatchResultDto> saveNewBookings(long bookerId, List<BookingRequestDto> bookingDtos);
+
     BookingResponseDto bookingConfirmation(long ownerId, long bookingId, Boolean approved);
 
+    List<BookingResponseDto> bookingsConfirmation(long ownerId, List<Long> bookingIds, Long itemId, Boolean approved);
+
     BookingResponseDto getBookingById(long userId, long bookingId);
 
+    String getBookingETag(long userId, long bookingId);
+
     List<BookingResponseDto> getBookingsByBookerId(long bookerId, String state, Integer from, Integer size);
 
     List<BookingResponseDto> getBookingsForAllItemsByOwnerId(long userId, BookingState state, Integer from, Integer size);
+
+    List<BookingResponseDto> getBookingsByBookerIdAfter(long bookerId, String state, String cursor, Integer size);
+
+    List<BookingResponseDto> getBookingsForAllItemsByOwnerIdAfter(long userId, BookingState state, String cursor,
+                                                                  Integer size);
 }
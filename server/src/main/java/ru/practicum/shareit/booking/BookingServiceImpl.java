@@ -3,19 +3,25 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemForBookingDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,19 +37,20 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public BookingResponseDto saveNewBooking(long bookerId, BookingRequestDto bookingRequestDto) {
-        itemService.checkUserId(bookerId);
-        Item item = itemService.getItemById(bookingRequestDto.getItemId());
+        User booker = UserMapper.makeUser(userService.getUserById(bookerId));
+        ItemForBookingDto item = itemService.getItemForBooking(bookingRequestDto.getItemId());
         if (item.getUserId() == bookerId) {
             throw new NotFoundException("This item already belongs to you, " +
                     "so you can't rent it");
         }
         if (item.getAvailable()) {
+            checkOverlapping(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd(), 0);
             bookingRequestDto.setBookerId(bookerId);
             bookingRequestDto.setStatus(BookingStatus.WAITING);
-            Booking booking = bookingRepository.save(BookingMapper.makeBooking(bookingRequestDto));
-            booking.setItem(itemService.getItemById(bookingRequestDto.getItemId()));
-            booking.setBooker(UserMapper.makeUser(userService.getUserById(bookingRequestDto.getBookerId())));
-            return BookingMapper.makeBookingResponseDto(booking);
+            Booking booking = BookingMapper.makeBooking(bookingRequestDto);
+            booking.setItem(ItemMapper.makeItem(item));
+            booking.setBooker(booker);
+            return BookingMapper.makeBookingResponseDto(bookingRepository.save(booking));
         } else {
             log.error("This item isn't available");
             throw new IllegalArgumentException("This item isn't available");
@@ -52,16 +59,58 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    public List<BookingBatchResultDto> saveNewBookings(long bookerId, List<BookingRequestDto> bookingRequestDtos) {
+        User booker = UserMapper.makeUser(userService.getUserById(bookerId));
+        Set<Long> itemIds = bookingRequestDtos.stream()
+                .map(BookingRequestDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemService.getItemsByIds(itemIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, i -> i));
+        Map<Long, List<BookingPeriod>> approvedBookings = getApprovedBookingsByItemId(itemIds, bookingRequestDtos);
+        LocalDateTime now = LocalDateTime.now();
+        String[] errors = new String[bookingRequestDtos.size()];
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < bookingRequestDtos.size(); i++) {
+            BookingRequestDto bookingRequestDto = bookingRequestDtos.get(i);
+            Item item = items.get(bookingRequestDto.getItemId());
+            errors[i] = validateBatchEntry(bookerId, bookingRequestDto, item,
+                    approvedBookings.getOrDefault(bookingRequestDto.getItemId(), Collections.emptyList()), now);
+            if (errors[i] != null) {
+                log.warn("Batch booking entry {} rejected: {}", i, errors[i]);
+                continue;
+            }
+            bookingRequestDto.setId(0);
+            bookingRequestDto.setBookerId(bookerId);
+            bookingRequestDto.setStatus(BookingStatus.WAITING);
+            Booking booking = BookingMapper.makeBooking(bookingRequestDto);
+            booking.setItem(item);
+            booking.setBooker(booker);
+            bookings.add(booking);
+        }
+        Iterator<Booking> savedBookings = bookingRepository.saveAll(bookings).iterator();
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        for (String error : errors) {
+            if (error == null) {
+                results.add(new BookingBatchResultDto(BookingMapper.makeBookingResponseDto(savedBookings.next()), null));
+            } else {
+                results.add(new BookingBatchResultDto(null, error));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional
     public BookingResponseDto bookingConfirmation(long ownerId, long bookingId, Boolean approved) {
-        itemService.checkUserId(ownerId);
         Booking booking = getBooking(bookingId);
-        booking.setItem(itemService.getItemById(booking.getItem().getId()));
-        booking.setBooker(UserMapper.makeUser(userService.getUserById(booking.getBooker().getId())));
-        itemService.checkOwner(ownerId, booking.getItem().getId());
+        checkOwner(ownerId, booking);
         if (approved && booking.getStatus().equals(BookingStatus.APPROVED)) {
             throw new IllegalArgumentException("Approved error");
         }
         if (approved) {
+            itemService.lockItems(List.of(booking.getItem().getId()));
+            checkOverlapping(booking.getItem().getId(), booking.getStart(), booking.getEnd(), booking.getId());
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
@@ -69,16 +118,65 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.makeBookingResponseDto(bookingRepository.save(booking));
     }
 
+    /**
+     * Confirms the owner's WAITING bookings listed by id, or all of them for one item, with a single UPDATE.
+     * When approving, bookings that would overlap an approved one (or each other) are left WAITING;
+     * their items stay locked from the overlap check to the commit.
+     */
+    @Override
+    @Transactional
+    public List<BookingResponseDto> bookingsConfirmation(long ownerId, List<Long> bookingIds, Long itemId,
+                                                         Boolean approved) {
+        itemService.checkUserId(ownerId);
+        if ((bookingIds == null) == (itemId == null)) {
+            throw new IllegalArgumentException("Either booking ids or an item id must be given");
+        }
+        List<Booking> bookings;
+        if (itemId != null) {
+            itemService.checkOwner(ownerId, itemId);
+            bookings = bookingRepository.findByOwnerIdAndItemId(ownerId, itemId, BookingStatus.WAITING);
+        } else if (bookingIds.isEmpty()) {
+            bookings = Collections.emptyList();
+        } else {
+            bookings = bookingRepository.findByOwnerIdAndIdIn(ownerId, bookingIds, BookingStatus.WAITING);
+        }
+        if (approved && !bookings.isEmpty()) {
+            itemService.lockItems(bookings.stream()
+                    .map(b -> b.getItem().getId())
+                    .collect(Collectors.toSet()));
+            bookings = withoutOverlapping(bookings);
+        }
+        if (bookings.isEmpty()) {
+            return Collections.emptyList();
+        }
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        List<Long> ids = bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        if (bookingRepository.updateStatus(ids, ownerId, BookingStatus.WAITING, status) != ids.size()) {
+            throw new ObjectOptimisticLockingFailureException(Booking.class, ids);
+        }
+        return bookings.stream()
+                .peek(b -> b.setStatus(status))
+                .map(BookingMapper::makeBookingResponseDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public BookingResponseDto getBookingById(long userId, long bookingId) {
-        itemService.checkUserId(userId);
         Booking booking = getBooking(bookingId);
-        if (userId == booking.getBooker().getId()) {
-            return BookingMapper.makeBookingResponseDto(booking);
-        } else {
-            itemService.checkOwner(userId, booking.getItem().getId());
-            return BookingMapper.makeBookingResponseDto(booking);
+        if (userId != booking.getBooker().getId()) {
+            checkOwner(userId, booking);
         }
+        return BookingMapper.makeBookingResponseDto(booking);
+    }
+
+    @Override
+    public String getBookingETag(long userId, long bookingId) {
+        return bookingRepository.findVersionById(bookingId)
+                .filter(v -> v.getBookerId() == userId || v.getOwnerId() == userId)
+                .map(v -> v.getVersion() + "." + v.getItemVersion() + "." + v.getBookerVersion())
+                .orElse(null);
     }
 
     @Override
@@ -123,21 +221,100 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    public List<BookingResponseDto> getBookingsByBookerIdAfter(long bookerId, String state, String cursor,
+                                                               Integer size) {
+        itemService.checkUserId(bookerId);
+        checkSize(size);
+        BookingCursor after = BookingCursor.parse(cursor);
+        Pageable pageable = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings;
+        switch (getBookingState(state)) {
+            case CURRENT:
+                bookings = bookingRepository.findCurrentByBookerIdAfter(bookerId, after.getStart(), after.getId(),
+                        now, pageable);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFutureByBookerIdAfter(bookerId, after.getStart(), after.getId(),
+                        now, pageable);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastByBookerIdAfter(bookerId, after.getStart(), after.getId(),
+                        now, pageable);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findByBookerIdAndStatusAfter(bookerId, after.getStart(), after.getId(),
+                        BookingStatus.REJECTED, pageable);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findByBookerIdAndStatusAfter(bookerId, after.getStart(), after.getId(),
+                        BookingStatus.WAITING, pageable);
+                break;
+            default:
+                bookings = bookingRepository.findByBookerIdAfter(bookerId, after.getStart(), after.getId(), pageable);
+        }
+        return bookings.stream()
+                .map(BookingMapper::makeBookingResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BookingResponseDto> getBookingsForAllItemsByOwnerIdAfter(long userId, BookingState state,
+                                                                         String cursor, Integer size) {
+        itemService.checkUserId(userId);
+        checkSize(size);
+        BookingCursor after = BookingCursor.parse(cursor);
+        Pageable pageable = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        if (state == null) {
+            state = BookingState.ALL;
+        }
+        List<Booking> bookings;
+        switch (state) {
+            case CURRENT:
+                bookings = bookingRepository.findCurrentByOwnerIdAfter(userId, after.getStart(), after.getId(),
+                        now, pageable);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFutureByOwnerIdAfter(userId, after.getStart(), after.getId(),
+                        now, pageable);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastByOwnerIdAfter(userId, after.getStart(), after.getId(),
+                        now, pageable);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findByOwnerIdAndStatusAfter(userId, after.getStart(), after.getId(),
+                        BookingStatus.REJECTED, pageable);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findByOwnerIdAndStatusAfter(userId, after.getStart(), after.getId(),
+                        BookingStatus.WAITING, pageable);
+                break;
+            default:
+                bookings = bookingRepository.findByOwnerIdAfter(userId, after.getStart(), after.getId(), pageable);
+        }
+        return bookings.stream()
+                .map(BookingMapper::makeBookingResponseDto)
+                .collect(Collectors.toList());
+    }
+
     public Booking getBooking(long bookingId) {
-        Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
-        if (bookingOpt.isPresent()) {
-            Booking booking = bookingOpt.get();
-            booking.setItem(itemService.getItemById(booking.getItem().getId()));
-            booking.setBooker(UserMapper.makeUser(userService.getUserById(booking.getBooker().getId())));
-            return booking;
-        } else {
-            throw new NotFoundException("Booking id error");
+        return bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking id error"));
+    }
+
+    private void checkOwner(long userId, Booking booking) {
+        if (booking.getItem().getUserId() != userId) {
+            log.error(String.format("Item with id = %s not found", booking.getItem().getId()));
+            throw new NotFoundException(String.format("Item with id = %s not found", booking.getItem().getId()));
         }
     }
 
     private List<BookingResponseDto> getAllBookingsByBookerId(long bookerId, int page, int size) {
         return bookingRepository.findByBookerId(bookerId, PageRequest.of(page, size,
-                        Sort.Direction.DESC, "start"))
+                        Sort.Direction.DESC, "start", "id"))
                 .stream()
                 .map(BookingMapper::makeBookingResponseDto)
                 .collect(Collectors.toList());
@@ -169,7 +346,7 @@ public class BookingServiceImpl implements BookingService {
 
     private List<BookingResponseDto> getRejectedBookingsByBookerId(long bookerId, int page, int size) {
         return bookingRepository.findBookingByBooker_IdAndStatusIs(bookerId, BookingStatus.REJECTED,
-                        PageRequest.of(page, size, Sort.Direction.DESC, "start"))
+                        PageRequest.of(page, size, Sort.Direction.DESC, "start", "id"))
                 .stream()
                 .map(BookingMapper::makeBookingResponseDto)
                 .collect(Collectors.toList());
@@ -177,29 +354,29 @@ public class BookingServiceImpl implements BookingService {
 
     private List<BookingResponseDto> getWaitingBookingsByBookerId(long bookerId, int page, int size) {
         return bookingRepository.findBookingByBooker_IdAndStatusIs(bookerId, BookingStatus.WAITING,
-                        PageRequest.of(page, size, Sort.Direction.DESC, "start"))
+                        PageRequest.of(page, size, Sort.Direction.DESC, "start", "id"))
                 .stream()
                 .map(BookingMapper::makeBookingResponseDto)
                 .collect(Collectors.toList());
     }
 
     private List<BookingResponseDto> getAllBookingsOfAllItemsByOwnerId(long userId, int page, int size) {
-        return bookingRepository.findByItem_UserIdOrderByStartDesc(userId, PageRequest.of(page, size))
+        return bookingRepository.findByItem_UserIdOrderByStartDescIdDesc(userId, PageRequest.of(page, size))
                 .stream()
                 .map(BookingMapper::makeBookingResponseDto)
                 .collect(Collectors.toList());
     }
 
     private List<BookingResponseDto> getCurrentBookingsOfAllItemsByOwnerId(long userId, int page, int size) {
-        return bookingRepository.findByItem_userIdAndEndAfterAndStartBeforeOrderByStartDesc(userId, LocalDateTime.now(),
-                        LocalDateTime.now(), PageRequest.of(page, size))
+        return bookingRepository.findByItem_userIdAndEndAfterAndStartBeforeOrderByStartDescIdDesc(userId,
+                        LocalDateTime.now(), LocalDateTime.now(), PageRequest.of(page, size))
                 .stream()
                 .map(BookingMapper::makeBookingResponseDto)
                 .collect(Collectors.toList());
     }
 
     private List<BookingResponseDto> getFutureBookingsOfAllItemsByOwnerId(long userId, int page, int size) {
-        return bookingRepository.findByItem_userIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now(),
+        return bookingRepository.findByItem_userIdAndStartAfterOrderByStartDescIdDesc(userId, LocalDateTime.now(),
                         PageRequest.of(page, size))
                 .stream()
                 .map(BookingMapper::makeBookingResponseDto)
@@ -207,7 +384,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private List<BookingResponseDto> getPastBookingsOfAllItemsByOwnerId(long userId, int page, int size) {
-        return bookingRepository.findByItem_userIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now(),
+        return bookingRepository.findByItem_userIdAndEndBeforeOrderByStartDescIdDesc(userId, LocalDateTime.now(),
                         PageRequest.of(page, size))
                 .stream()
                 .map(BookingMapper::makeBookingResponseDto)
@@ -215,7 +392,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private List<BookingResponseDto> getRejectedBookingsOfAllItemsByOwnerId(long userId, int page, int size) {
-        return bookingRepository.findByItem_UserIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED,
+        return bookingRepository.findByItem_UserIdAndStatusOrderByStartDescIdDesc(userId, BookingStatus.REJECTED,
                         PageRequest.of(page, size))
                 .stream()
                 .map(BookingMapper::makeBookingResponseDto)
@@ -223,17 +400,29 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private List<BookingResponseDto> getWaitingBookingsOfAllItemsByOwnerId(long userId, int page, int size) {
-        return bookingRepository.findByItem_UserIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING,
+        return bookingRepository.findByItem_UserIdAndStatusOrderByStartDescIdDesc(userId, BookingStatus.WAITING,
                         PageRequest.of(page, size))
                 .stream()
                 .map(BookingMapper::makeBookingResponseDto)
                 .collect(Collectors.toList());
     }
 
-    private int calculatePage(int from, int size) {
+    private int calculatePage(Integer from, Integer size) {
+        checkSize(size);
+        if (from == null || from < 0) {
+            log.error("Wrong from: " + from);
+            throw new IllegalArgumentException("Parameter from must not be negative");
+        }
         return from / size;
     }
 
+    private void checkSize(Integer size) {
+        if (size == null || size <= 0) {
+            log.error("Wrong size: " + size);
+            throw new IllegalArgumentException("Parameter size must be positive");
+        }
+    }
+
     private BookingState getBookingState(String state) {
         if (state == null || state.equals("ALL")) {
             return BookingState.ALL;
@@ -252,4 +441,90 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException("Unknown state: " + state);
         }
     }
+
+    private Map<Long, List<BookingPeriod>> getApprovedBookingsByItemId(Set<Long> itemIds,
+                                                                       List<BookingRequestDto> bookingRequestDtos) {
+        LocalDateTime from = bookingRequestDtos.stream()
+                .map(BookingRequestDto::getStart)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        LocalDateTime to = bookingRequestDtos.stream()
+                .map(BookingRequestDto::getEnd)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        if (itemIds.isEmpty() || from == null || to == null) {
+            return Collections.emptyMap();
+        }
+        return bookingRepository.findOverlappingPeriodsByItemIds(itemIds, BookingStatus.APPROVED, from, to)
+                .stream()
+                .collect(Collectors.groupingBy(BookingPeriod::getItemId));
+    }
+
+    private List<Booking> withoutOverlapping(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return bookings;
+        }
+        Set<Long> itemIds = bookings.stream()
+                .map(b -> b.getItem().getId())
+                .collect(Collectors.toSet());
+        LocalDateTime from = bookings.stream()
+                .map(Booking::getStart)
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+        LocalDateTime to = bookings.stream()
+                .map(Booking::getEnd)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+        Map<Long, List<BookingPeriod>> approvedBookings = bookingRepository
+                .findOverlappingPeriodsByItemIds(itemIds, BookingStatus.APPROVED, from, to)
+                .stream()
+                .collect(Collectors.groupingBy(BookingPeriod::getItemId));
+        List<Booking> approvable = new ArrayList<>();
+        for (Booking booking : bookings) {
+            long itemId = booking.getItem().getId();
+            List<BookingPeriod> taken = approvedBookings.computeIfAbsent(itemId, id -> new ArrayList<>());
+            boolean overlapping = taken.stream()
+                    .anyMatch(b -> b.overlaps(booking.getStart(), booking.getEnd()));
+            if (overlapping) {
+                log.warn("Booking with id = {} overlaps an approved booking", booking.getId());
+            } else {
+                taken.add(new BookingPeriod(itemId, booking.getStart(), booking.getEnd()));
+                approvable.add(booking);
+            }
+        }
+        return approvable;
+    }
+
+    private String validateBatchEntry(long bookerId, BookingRequestDto bookingRequestDto, Item item,
+                                      List<BookingPeriod> approvedBookings, LocalDateTime now) {
+        if (item == null) {
+            return "Unknown item id";
+        }
+        if (item.getUserId() == bookerId) {
+            return "This item already belongs to you, so you can't rent it";
+        }
+        if (!item.getAvailable()) {
+            return "This item isn't available";
+        }
+        LocalDateTime start = bookingRequestDto.getStart();
+        LocalDateTime end = bookingRequestDto.getEnd();
+        if (start == null || end == null || start.isBefore(now) || !end.isAfter(start)) {
+            return "Booking time error";
+        }
+        boolean overlapping = approvedBookings.stream()
+                .anyMatch(b -> b.overlaps(start, end));
+        if (overlapping) {
+            return "This item is already booked for these dates";
+        }
+        return null;
+    }
+
+    private void checkOverlapping(long itemId, LocalDateTime start, LocalDateTime end, long bookingId) {
+        if (bookingRepository.existsOverlapping(itemId, BookingStatus.APPROVED, start, end, bookingId)) {
+            log.error(String.format("Item with id = %s is already booked for these dates", itemId));
+            throw new IllegalArgumentException("This item is already booked for these dates");
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Versions of everything a booking response is built from, with the ids needed for the access check.
+ */
+public interface BookingVersion {
+    long getBookerId();
+
+    long getOwnerId();
+
+    long getVersion();
+
+    long getItemVersion();
+
+    long getBookerVersion();
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS = "users";
+    public static final String USER_EXISTS = "userExists";
+    public static final String ITEMS = "items";
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.CommentsRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchMode;
+import ru.practicum.shareit.request.ItemRequestsRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Checks on startup that every table has a primary key and that the indexes the repositories declare next to their
+ * finders exist, independently of the schema scripts that are supposed to create them.
+ */
+@Slf4j
+@Component
+public class SchemaIndexVerifier {
+    private final DataSource dataSource;
+
+    private final ItemSearchMode searchMode;
+
+    public SchemaIndexVerifier(DataSource dataSource,
+                               @Value("${shareit.search.mode:like}") ItemSearchMode searchMode) {
+        this.dataSource = dataSource;
+        this.searchMode = searchMode;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() throws SQLException {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<String>> entry : getExpectedIndexes().entrySet()) {
+                String table = metaData.storesUpperCaseIdentifiers() ? entry.getKey().toUpperCase() : entry.getKey();
+                if (!hasPrimaryKey(metaData, table)) {
+                    missing.add(String.format("primary key of %s", entry.getKey()));
+                }
+                Set<String> indexes = getIndexNames(metaData, table);
+                for (String index : entry.getValue()) {
+                    if (!indexes.contains(index)) {
+                        missing.add(String.format("%s on %s", index, entry.getKey()));
+                    }
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            log.error("Missing database indexes: {}", missing);
+            throw new IllegalStateException("Missing database indexes: " + missing);
+        }
+        log.info("All expected database indexes are present");
+    }
+
+    /**
+     * Index names by table name, both lower case. The full-text index is only expected when the search uses it.
+     */
+    public Map<String, List<String>> getExpectedIndexes() {
+        List<String> itemIndexes = new ArrayList<>(ItemRepository.INDEXES);
+        if (searchMode == ItemSearchMode.FULL_TEXT) {
+            itemIndexes.add(ItemRepository.FULL_TEXT_INDEX);
+        }
+        Map<String, List<String>> expectedIndexes = new LinkedHashMap<>();
+        expectedIndexes.put("users", List.of());
+        expectedIndexes.put("items", itemIndexes);
+        expectedIndexes.put("bookings", BookingRepository.INDEXES);
+        expectedIndexes.put("comments", CommentsRepository.INDEXES);
+        expectedIndexes.put("item_requests", ItemRequestsRepository.INDEXES);
+        return expectedIndexes;
+    }
+
+    private boolean hasPrimaryKey(DatabaseMetaData metaData, String table) throws SQLException {
+        try (ResultSet primaryKeys = metaData.getPrimaryKeys(null, null, table)) {
+            return primaryKeys.next();
+        }
+    }
+
+    private Set<String> getIndexNames(DatabaseMetaData metaData, String table) throws SQLException {
+        Set<String> indexes = new HashSet<>();
+        try (ResultSet indexInfo = metaData.getIndexInfo(null, null, table, false, true)) {
+            while (indexInfo.next()) {
+                String name = indexInfo.getString("INDEX_NAME");
+                if (name != null) {
+                    indexes.add(name.toLowerCase());
+                }
+            }
+        }
+        return indexes;
+    }
+}
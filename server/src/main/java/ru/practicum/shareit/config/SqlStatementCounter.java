@@ -0,0 +1,91 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the SQL statements Hibernate prepares, in total and per thread between {@link #start()} and {@link #stop()}.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+    private final ThreadLocal<Statements> current = new ThreadLocal<>();
+
+    private final Counter statements;
+
+    public SqlStatementCounter(MeterRegistry meterRegistry) {
+        this.statements = Counter.builder("shareit.sql.statements")
+                .description("SQL statements prepared by Hibernate")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        statements.increment();
+        Statements counted = current.get();
+        if (counted != null) {
+            counted.add(sql);
+        }
+        return sql;
+    }
+
+    public void start() {
+        current.set(new Statements());
+    }
+
+    /**
+     * Returns the statements counted on this thread since {@link #start()}, empty if counting was not started.
+     */
+    public Statements stop() {
+        Statements counted = current.get();
+        current.remove();
+        return counted == null ? new Statements() : counted;
+    }
+
+    public static class Statements {
+        private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+        private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+        private static final int MAX_SHAPE_LENGTH = 200;
+
+        private final Map<String, Integer> bySql = new LinkedHashMap<>();
+
+        private int count;
+
+        private void add(String sql) {
+            count++;
+            bySql.merge(sql, 1, Integer::sum);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Query shapes, most repeated first: whitespace collapsed, IN lists of any length folded into {@code (?)}
+         * and long statements cut. A shape repeated many times usually means an N+1 load.
+         */
+        public List<String> getShapes() {
+            Map<String, Integer> shapes = new LinkedHashMap<>();
+            bySql.forEach((sql, times) -> shapes.merge(shape(sql), times, Integer::sum));
+            return shapes.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                    .map(e -> e.getValue() + "x " + e.getKey())
+                    .collect(Collectors.toList());
+        }
+
+        private static String shape(String sql) {
+            String shape = PARAMETER_LIST.matcher(WHITESPACE.matcher(sql.trim()).replaceAll(" ")).replaceAll("(?)");
+            return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) + "..." : shape;
+        }
+    }
+}
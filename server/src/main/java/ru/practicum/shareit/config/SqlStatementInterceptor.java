@@ -0,0 +1,57 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many SQL statements each request issued, tagged like http.server.requests by method and uri,
+ * and logs the query shapes of requests that go over {@code shareit.sql.budget} statements.
+ */
+@Slf4j
+@Component
+public class SqlStatementInterceptor implements HandlerInterceptor {
+    private final SqlStatementCounter sqlStatementCounter;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int budget;
+
+    public SqlStatementInterceptor(SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry,
+                                   @Value("${shareit.sql.budget:0}") int budget) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        sqlStatementCounter.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SqlStatementCounter.Statements statements = sqlStatementCounter.stop();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("shareit.sql.statements.per.request")
+                .description("SQL statements issued while handling one request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.getCount());
+        if (budget > 0 && statements.getCount() > budget) {
+            log.warn("{} {} issued {} SQL statements, over the budget of {}: {}", request.getMethod(),
+                    request.getRequestURI(), statements.getCount(), budget, statements.getShapes());
+        }
+    }
+}
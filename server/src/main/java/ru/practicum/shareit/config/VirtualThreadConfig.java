@@ -0,0 +1,67 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat requests and {@code @Async} tasks on virtual threads when {@code shareit.threads.virtual=true}.
+ * Before Java 21 the setting is ignored with a warning and the default platform thread pools stay in place.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual", havingValue = "true")
+@Conditional(VirtualThreadConfig.OnVirtualThreadsCondition.class)
+public class VirtualThreadConfig {
+    private static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.info("Request handling runs on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available on Java "
+                    + System.getProperty("java.version"), e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    static class OnVirtualThreadsCondition extends SpringBootCondition {
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            if (Runtime.version().feature() >= VIRTUAL_THREADS_JAVA_VERSION) {
+                return ConditionOutcome.match("Java " + Runtime.version().feature() + " has virtual threads");
+            }
+            log.warn("shareit.threads.virtual=true is ignored: virtual threads need Java {} or newer, running on {}",
+                    VIRTUAL_THREADS_JAVA_VERSION, System.getProperty("java.version"));
+            return ConditionOutcome.noMatch("Java " + Runtime.version().feature() + " has no virtual threads");
+        }
+    }
+}
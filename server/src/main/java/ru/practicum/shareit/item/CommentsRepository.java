@@ -3,9 +3,16 @@ package ru.practicum.shareit.item;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.item.model.Comments;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentsRepository extends JpaRepository<Comments, Long> {
+    /**
+     * The {@code comments (item_id)} index both finders are planned on.
+     */
+    List<String> INDEXES = List.of("ix_comments_item_id");
 
     List<Comments> findCommentsByItemId(long itemId);
+
+    List<Comments> findCommentsByItemIdIn(Collection<Long> itemIds);
 }
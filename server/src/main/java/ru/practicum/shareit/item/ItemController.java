@@ -1,11 +1,15 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentsDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -34,10 +38,24 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@RequestHeader("X-Sharer-User-Id") long userId,
-                               @PathVariable long itemId) {
+                               @PathVariable long itemId,
+                               WebRequest request) {
+        if (request.checkNotModified(itemService.getItemETag(userId, itemId))) {
+            return null;
+        }
         return itemService.getItemById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<FreeSlotDto> getAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                             @PathVariable long itemId,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime to) {
+        return itemService.getAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping
     public List<ItemDto> getItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
                                           @RequestParam(required = false) Integer from,
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForBookingDto;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.model.Item;
 
@@ -31,6 +32,23 @@ public class ItemMapper {
         return itemDto;
     }
 
+    public static Item makeItem(ItemForBookingDto itemDto) {
+        Item item = new Item();
+        item.setId(itemDto.getId());
+        item.setName(itemDto.getName());
+        item.setDescription(itemDto.getDescription());
+        item.setAvailable(itemDto.getAvailable());
+        item.setUserId(itemDto.getUserId());
+        item.setRequestId(itemDto.getRequestId());
+        item.setVersion(itemDto.getVersion());
+        return item;
+    }
+
+    public static ItemForBookingDto makeItemForBookingDto(Item item) {
+        return new ItemForBookingDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getUserId(), item.getRequestId(), item.getVersion());
+    }
+
     public static ItemForRequestDto makeItemForRequestDto(Item item) {
         ItemForRequestDto itemDto = new ItemForRequestDto();
         itemDto.setId(item.getId());
@@ -3,16 +3,56 @@ package ru.practicum.shareit.item;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByNameContainingIgnoreCase(String text);
+    /**
+     * Indexes on {@code items} the finders below are planned on: {@code findItemByUserIdOrderById} and
+     * {@code findRequestIdsByUserId} use {@code (user_id, id)}, {@code getItemByRequestId} and
+     * {@code findByRequestIdIn} use {@code (request_id)}.
+     */
+    List<String> INDEXES = List.of("ix_items_user_id", "ix_items_request_id");
 
-    List<Item> findByDescriptionContainingIgnoreCase(String text);
+    /**
+     * The PostgreSQL GIN index {@link #fullTextSearch} needs when {@code shareit.search.mode=full_text}.
+     */
+    String FULL_TEXT_INDEX = "ix_items_search";
+
+    /**
+     * Expects {@code text} with {@code %}, {@code _} and {@code \} escaped by a backslash.
+     */
+    @Query("SELECT i FROM Item i WHERE i.available = TRUE " +
+            "AND (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) ESCAPE '\\' " +
+            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')) ESCAPE '\\')")
+    List<Item> search(String text, Pageable pageable);
+
+    @Query(value = "SELECT * FROM items WHERE available = TRUE " +
+            "AND to_tsvector('simple', name || ' ' || description) @@ to_tsquery('simple', ?1) " +
+            "ORDER BY ts_rank(to_tsvector('simple', name || ' ' || description), to_tsquery('simple', ?1)) DESC, id",
+            nativeQuery = true)
+    List<Item> fullTextSearch(String query, Pageable pageable);
 
     Page<Item> findItemByUserIdOrderById(long userId, Pageable pageable);
 
     List<Item> getItemByRequestId(long requestId);
+
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("SELECT DISTINCT i.requestId FROM Item i WHERE i.userId = ?1 AND i.requestId <> 0")
+    List<Long> findRequestIdsByUserId(long userId);
+
+    @Query("SELECT i.userId AS ownerId, i.version AS version, " +
+            "(SELECT COUNT(c) FROM Comments c WHERE c.itemId = i.id) AS commentCount FROM Item i WHERE i.id = ?1")
+    Optional<ItemVersion> findVersionById(long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN ?1 ORDER BY i.id")
+    List<Item> lockByIds(Collection<Long> itemIds);
 }
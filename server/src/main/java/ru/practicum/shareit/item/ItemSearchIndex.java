@@ -0,0 +1,224 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM_SIZE = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final boolean enabled;
+
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.mode:like}") ItemSearchMode searchMode) {
+        this.itemRepository = itemRepository;
+        this.enabled = searchMode == ItemSearchMode.INDEX;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            postings.clear();
+            Page<Item> page = itemRepository.findAll(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+            page.forEach(this::add);
+            while (page.hasNext()) {
+                page = itemRepository.findAll(page.nextPageable());
+                page.forEach(this::add);
+            }
+            log.info("Item search index built for {} items", items.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            add(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeByOwner(long userId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Long> ownedItemIds = items.values().stream()
+                    .filter(i -> i.getUserId() == userId)
+                    .map(IndexedItem::getId)
+                    .collect(Collectors.toList());
+            ownedItemIds.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Item> search(String text, int from, int size) {
+        String query = text.toLowerCase();
+        lock.readLock().lock();
+        try {
+            Map<IndexedItem, Integer> scores = new HashMap<>();
+            for (Long itemId : candidates(query)) {
+                IndexedItem indexedItem = items.get(itemId);
+                int score = indexedItem.score(query);
+                if (indexedItem.getAvailable() && score > 0) {
+                    scores.put(indexedItem, score);
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<IndexedItem, Integer>comparingByValue().reversed()
+                            .thenComparingLong(e -> e.getKey().getId()))
+                    .skip((long) (from / size) * size)
+                    .limit(size)
+                    .map(e -> e.getKey().toItem())
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM_SIZE) {
+            return items.keySet();
+        }
+        Set<String> grams = grams(query);
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void add(Item item) {
+        IndexedItem indexedItem = new IndexedItem(item);
+        items.put(item.getId(), indexedItem);
+        for (String gram : indexedItem.grams()) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(item.getId());
+        }
+    }
+
+    private void remove(long itemId) {
+        IndexedItem indexedItem = items.remove(itemId);
+        if (indexedItem == null) {
+            return;
+        }
+        for (String gram : indexedItem.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static final class IndexedItem {
+        private final Item item;
+        private final String name;
+        private final String description;
+
+        private IndexedItem(Item item) {
+            this.item = new Item();
+            this.item.setId(item.getId());
+            this.item.setName(item.getName());
+            this.item.setDescription(item.getDescription());
+            this.item.setUserId(item.getUserId());
+            this.item.setRequestId(item.getRequestId());
+            this.item.setAvailable(item.getAvailable());
+            this.name = item.getName() == null ? "" : item.getName().toLowerCase();
+            this.description = item.getDescription() == null ? "" : item.getDescription().toLowerCase();
+        }
+
+        private long getId() {
+            return item.getId();
+        }
+
+        private long getUserId() {
+            return item.getUserId();
+        }
+
+        private boolean getAvailable() {
+            return Boolean.TRUE.equals(item.getAvailable());
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+
+        private int score(String query) {
+            int score = 0;
+            if (name.contains(query)) {
+                score += name.equals(query) ? 4 : 2;
+            }
+            if (description.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+
+        private Item toItem() {
+            Item copy = new Item();
+            copy.setId(item.getId());
+            copy.setName(item.getName());
+            copy.setDescription(item.getDescription());
+            copy.setUserId(item.getUserId());
+            copy.setRequestId(item.getRequestId());
+            copy.setAvailable(item.getAvailable());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item;
+
+/**
+ * How {@code shareit.search.mode} matches the search text against item names and descriptions.
+ */
+public enum ItemSearchMode {
+    /**
+     * Case-insensitive substring match, the default: "ill" finds "drill".
+     */
+    LIKE,
+    /**
+     * PostgreSQL full-text search ranked by relevance. Each word of the text matches word prefixes only:
+     * "dri" finds "drill", "ill" does not.
+     */
+    FULL_TEXT,
+    /**
+     * Substring match on the in-memory trigram index.
+     */
+    INDEX
+}
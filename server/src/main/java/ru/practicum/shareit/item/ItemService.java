@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentsDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForBookingDto;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemService {
@@ -14,19 +18,29 @@ public interface ItemService {
 
     ItemDto getItemById(long userId, long itemId);
 
+    String getItemETag(long userId, long itemId);
+
     ItemDto getItemDtoById(long itemId);
 
     Item getItemById(long itemId);
 
+    ItemForBookingDto getItemForBooking(long itemId);
+
+    List<Item> getItemsByIds(Collection<Long> itemIds);
+
     List<ItemDto> getItemByUserId(long userId, Integer from, Integer size);
 
     List<ItemDto> search(String text, Integer from, Integer size);
 
     void checkOwner(long userId, long itemId);
 
+    void lockItems(Collection<Long> itemIds);
+
     void checkUserId(long userId);
 
     CommentsDto saveNewComment(long userId, long itemId, CommentsDto commentDto);
 
     List<ItemForRequestDto> getItemsByRequestId(long requestId);
+
+    List<FreeSlotDto> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to);
 }
@@ -2,25 +2,33 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingPeriod;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentsDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForBookingDto;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.model.Comments;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.request.ItemRequestsRepository;
+import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -29,36 +37,51 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
 
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final BookingRepository bookingRepository;
 
     private final CommentsRepository commentRepository;
 
+    private final ItemSearchIndex itemSearchIndex;
+
+    private final ItemRequestsRepository itemRequestsRepository;
+
+    @Value("${shareit.search.mode:like}")
+    private ItemSearchMode searchMode;
+
     @Override
     public ItemDto saveNewItem(long userId, ItemDto itemDto) {
         checkUserId(userId);
         Item item = ItemMapper.makeItem(itemDto);
         item.setUserId(userId);
-        return ItemMapper.makeItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.put(savedItem);
+        touchItemRequest(savedItem);
+        return ItemMapper.makeItemDto(savedItem);
     }
 
     @Override
+    @CacheEvict(value = CacheConfig.ITEMS, key = "#itemId")
     public ItemDto updateItem(long userId, long itemId, ItemDto itemDto) {
-        checkOwner(userId, itemId);
-        ItemDto itemDtoFromDB = getItemDtoById(itemId);
-        if (itemDto.getName() == null) {
-            itemDto.setName(itemDtoFromDB.getName());
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Unknown item id"));
+        if (item.getUserId() != userId) {
+            log.error(String.format("Item with id = %s not found", itemId));
+            throw new NotFoundException(String.format("Item with id = %s not found", itemId));
         }
-        if (itemDto.getDescription() == null) {
-            itemDto.setDescription(itemDtoFromDB.getDescription());
+        if (itemDto.getName() != null) {
+            item.setName(itemDto.getName());
         }
-        if (itemDto.getAvailable() == null) {
-            itemDto.setAvailable(itemDtoFromDB.getAvailable());
+        if (itemDto.getDescription() != null) {
+            item.setDescription(itemDto.getDescription());
         }
-        itemDto.setId(itemId);
-        Item item = ItemMapper.makeItem(itemDto);
-        item.setUserId(userId);
-        return ItemMapper.makeItemDto(itemRepository.save(item));
+        if (itemDto.getAvailable() != null) {
+            item.setAvailable(itemDto.getAvailable());
+        }
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.put(savedItem);
+        touchItemRequest(savedItem);
+        return ItemMapper.makeItemDto(savedItem);
     }
 
     @Override
@@ -81,6 +104,17 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    @Override
+    @Cacheable(value = CacheConfig.ITEMS, key = "#itemId")
+    public ItemForBookingDto getItemForBooking(long itemId) {
+        return ItemMapper.makeItemForBookingDto(getItemById(itemId));
+    }
+
+    @Override
+    public List<Item> getItemsByIds(Collection<Long> itemIds) {
+        return itemRepository.findAllById(itemIds);
+    }
+
     @Override
     public ItemDto getItemById(long userId, long itemId) {
         Optional<Item> itemOptional = itemRepository.findById(itemId);
@@ -100,36 +134,43 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    @Override
+    public String getItemETag(long userId, long itemId) {
+        return itemRepository.findVersionById(itemId)
+                .filter(v -> v.getOwnerId() != userId)
+                .map(v -> v.getVersion() + "." + v.getCommentCount())
+                .orElse(null);
+    }
+
     @Override
     public List<ItemDto> getItemByUserId(long userId, Integer from, Integer size) {
         checkUserId(userId);
         Page<Item> items = itemRepository.findItemByUserIdOrderById(userId, PageRequest.of((from / size), size));
-        List<Comments> allComments = commentRepository.findAll();
-        List<ItemDto> itemsForOwnerDto = new ArrayList<>();
-        List<Booking> bookings = bookingRepository.findAll().stream()
-                .filter(b -> b.getStatus().equals(BookingStatus.APPROVED))
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
                 .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = groupBookingsByItemId(bookingRepository
+                .findLastBookingsByItemIds(itemIds, BookingStatus.APPROVED, now));
+        Map<Long, Booking> nextBookings = groupBookingsByItemId(bookingRepository
+                .findNextBookingsByItemIds(itemIds, BookingStatus.APPROVED, now));
+        Map<Long, List<CommentsDto>> comments = commentRepository.findCommentsByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(Comments::getItemId,
+                        Collectors.mapping(CommentsMapper::makeCommentDto, Collectors.toList())));
+        List<ItemDto> itemsForOwnerDto = new ArrayList<>();
         for (Item item : items) {
-            List<Booking> lastBookings = bookings.stream().filter(b -> b.getItem().getId() == item.getId())
-                    .filter(b -> b.getEnd().isBefore(LocalDateTime.now())).sorted(Comparator.comparing(Booking::getEnd))
-                    .collect(Collectors.toList());
-            if (lastBookings.size() > 0) {
-                item.setLastBooking(BookingMapper.makeBookingForItemDto(lastBookings.get(lastBookings.size() - 1)));
+            if (lastBookings.containsKey(item.getId())) {
+                item.setLastBooking(BookingMapper.makeBookingForItemDto(lastBookings.get(item.getId())));
             }
-            List<Booking> nextBookings = bookings.stream().filter(b -> b.getItem().getId() == item.getId())
-                    .filter(b -> b.getStart().isAfter(LocalDateTime.now())).sorted(Comparator.comparing(Booking::getStart))
-                    .collect(Collectors.toList());
-            if (nextBookings.size() > 0) {
-                item.setNextBooking(BookingMapper.makeBookingForItemDto(nextBookings.get(nextBookings.size() - 1)));
+            if (nextBookings.containsKey(item.getId())) {
+                item.setNextBooking(BookingMapper.makeBookingForItemDto(nextBookings.get(item.getId())));
             }
             ItemDto itemDto = ItemMapper.makeItemDto(item);
-            List<CommentsDto> comments = new ArrayList<>();
-            for (Comments comment : allComments) {
-                if (comment.getItemId() == item.getId()) {
-                    comments.add(CommentsMapper.makeCommentDto(comment));
-                }
-            }
-            itemDto.setComments(comments);
+            itemDto.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
             itemsForOwnerDto.add(itemDto);
         }
         return itemsForOwnerDto;
@@ -140,19 +181,20 @@ public class ItemServiceImpl implements ItemService {
         if ((text == null) || text.isBlank()) {
             return Collections.emptyList();
         }
-        Set<Item> items = Stream.concat(itemRepository
-                                .findByNameContainingIgnoreCase(text)
-                                .stream(),
-                        itemRepository
-                                .findByDescriptionContainingIgnoreCase(text)
-                                .stream())
-                .skip(from)
-                .limit(size)
-                .filter(item -> item.getAvailable())
-                .collect(Collectors.toSet());
-
-        return items.stream().map(ItemMapper::makeItemDto)
-                .sorted((i1, i2) -> (int) (i1.getId() - i2.getId()))
+        List<Item> items;
+        if (searchMode == ItemSearchMode.FULL_TEXT) {
+            String query = makeFullTextQuery(text);
+            if (query.isEmpty()) {
+                return Collections.emptyList();
+            }
+            items = itemRepository.fullTextSearch(query, PageRequest.of(from / size, size));
+        } else if (searchMode == ItemSearchMode.INDEX) {
+            items = itemSearchIndex.search(text, from, size);
+        } else {
+            items = itemRepository.search(escapeLike(text), PageRequest.of(from / size, size, Sort.by("id")));
+        }
+        return items.stream()
+                .map(ItemMapper::makeItemDto)
                 .collect(Collectors.toList());
     }
 
@@ -169,27 +211,29 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    /**
+     * Locks the item rows until the current transaction ends, in id order so that two callers cannot deadlock.
+     * Approvals take it before looking for overlapping bookings, so two of them cannot both pass that check.
+     */
+    @Override
+    public void lockItems(Collection<Long> itemIds) {
+        itemRepository.lockByIds(itemIds);
+    }
+
     @Override
     public void checkUserId(long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userService.existsById(userId)) {
             log.error(String.format("User with id = %s not found", userId));
             throw new NotFoundException(String.format("User with id = %s not found", userId));
         }
     }
 
     private ItemDto setLastAndNextBooking(ItemDto itemDto, long itemId) {
-        List<Booking> lastBookings = bookingRepository
-                .findByItem_IdAndEndIsBeforeOrderByEndDesc(itemId, LocalDateTime.now());
-        if (lastBookings.size() > 0) {
-            itemDto.setLastBooking(BookingMapper
-                    .makeBookingForItemDto(lastBookings.get(lastBookings.size() - 1)));
-        }
-        List<Booking> nextBookings = bookingRepository
-                .findByItem_IdAndStartIsAfterOrderByStartDesc(itemId, LocalDateTime.now());
-        if (nextBookings.size() > 0) {
-            itemDto.setNextBooking(BookingMapper
-                    .makeBookingForItemDto(nextBookings.get(nextBookings.size() - 1)));
-        }
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.findFirstByItem_IdAndStatusAndEndIsBeforeOrderByEndDesc(itemId, BookingStatus.APPROVED, now)
+                .ifPresent(b -> itemDto.setLastBooking(BookingMapper.makeBookingForItemDto(b)));
+        bookingRepository.findFirstByItem_IdAndStatusAndStartIsAfterOrderByStartAsc(itemId, BookingStatus.APPROVED, now)
+                .ifPresent(b -> itemDto.setNextBooking(BookingMapper.makeBookingForItemDto(b)));
         return itemDto;
     }
 
@@ -205,7 +249,7 @@ public class ItemServiceImpl implements ItemService {
         if (bookingsByUserId.size() > 0) {
             commentDto.setItemId(itemId);
             commentDto.setCreated(LocalDateTime.now());
-            commentDto.setAuthorName(userRepository.findById(userId).get().getName());
+            commentDto.setAuthorName(userService.getUserById(userId).getName());
             Comments comment = CommentsMapper.makeComment(commentDto);
             comment.setUserId(userId);
             return CommentsMapper.makeCommentDto(commentRepository.save(comment));
@@ -222,6 +266,58 @@ public class ItemServiceImpl implements ItemService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<FreeSlotDto> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        checkUserId(userId);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("The end of the period must be after its start");
+        }
+        getItemById(itemId);
+        List<BookingPeriod> approvedBookings = bookingRepository.findOverlappingPeriods(itemId,
+                BookingStatus.APPROVED, from, to);
+        List<FreeSlotDto> freeSlots = new ArrayList<>();
+        LocalDateTime slotStart = from;
+        for (BookingPeriod booking : approvedBookings) {
+            if (booking.getStart().isAfter(slotStart)) {
+                freeSlots.add(new FreeSlotDto(slotStart, booking.getStart()));
+            }
+            if (booking.getEnd().isAfter(slotStart)) {
+                slotStart = booking.getEnd();
+            }
+        }
+        if (slotStart.isBefore(to)) {
+            freeSlots.add(new FreeSlotDto(slotStart, to));
+        }
+        return freeSlots;
+    }
+
+    /**
+     * Items are part of the request view, so the request version moves whenever one of its items changes.
+     */
+    private void touchItemRequest(Item item) {
+        if (item.getRequestId() != 0) {
+            itemRequestsRepository.incrementVersion(item.getRequestId());
+        }
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private String makeFullTextQuery(String text) {
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private Map<Long, Booking> groupBookingsByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), b -> b, (b1, b2) -> b1.getId() > b2.getId() ? b1 : b2));
+    }
+
     private List<CommentsDto> getComments(long itemId) {
         return commentRepository.findCommentsByItemId(itemId)
                 .stream()
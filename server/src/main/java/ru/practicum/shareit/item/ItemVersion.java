@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item;
+
+/**
+ * Version of an item and the number of its comments, which together identify the item view of a non-owner.
+ */
+public interface ItemVersion {
+    long getOwnerId();
+
+    long getVersion();
+
+    long getCommentCount();
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+/**
+ * The item fields a new booking needs. Immutable, since one instance is shared by every reader of the items cache.
+ */
+@Value
+public class ItemForBookingDto {
+    long id;
+    String name;
+    String description;
+    Boolean available;
+    long userId;
+    long requestId;
+    long version;
+}
@@ -18,7 +18,8 @@ import java.util.Objects;
 @NoArgsConstructor
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_id_seq")
+    @SequenceGenerator(name = "items_id_seq", sequenceName = "items_id_seq", allocationSize = 50)
     private long id;
     private String name;
     private String description;
@@ -27,6 +28,8 @@ public class Item {
     private long requestId;
     @NotNull(message = "Field available can't be null")
     private Boolean available;
+    @Version
+    private long version;
     @Transient
     private BookingForItemDto lastBooking;
     @Transient
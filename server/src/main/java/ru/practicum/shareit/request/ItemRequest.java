@@ -17,11 +17,14 @@ import java.util.Set;
 @NoArgsConstructor
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_requests_id_seq")
+    @SequenceGenerator(name = "item_requests_id_seq", sequenceName = "item_requests_id_seq", allocationSize = 50)
     private long id;
     private String description;
     private long userId;
     private LocalDateTime created;
+    @Version
+    private long version;
     @Transient
     private Set<Item> items;
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -41,7 +42,11 @@ public class ItemRequestController {
 
     @GetMapping("/{itemRequestId}")
     public ItemRequestDto getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable long itemRequestId) {
+                                             @PathVariable long itemRequestId,
+                                             WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getItemRequestETag(userId, itemRequestId))) {
+            return null;
+        }
         return itemRequestService.getItemRequestById(userId, itemRequestId);
     }
 }
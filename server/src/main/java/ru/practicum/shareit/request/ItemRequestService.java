@@ -16,4 +16,6 @@ public interface ItemRequestService {
 
     ItemRequestDto getItemRequestById(long userId, long itemRequestId);
 
+    String getItemRequestETag(long userId, long itemRequestId);
+
 }
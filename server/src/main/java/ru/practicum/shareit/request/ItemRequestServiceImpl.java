@@ -10,12 +10,13 @@ import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -24,7 +25,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
 
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemRepository itemRepository;
     private final ItemRequestsRepository itemRequestsRepository;
 
@@ -45,16 +46,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .stream()
                 .map(ItemRequestMapper::makeItemRequestDto)
                 .collect(Collectors.toList());
-        List<Item> items = itemRepository.findAll();
-        for (ItemRequestDto itemRequest : itemsRequests) {
-            List<ItemForRequestDto> itemForRequestDtos = new ArrayList<>();
-            for (Item item : items) {
-                if (item.getRequestId() == itemRequest.getId()) {
-                    itemForRequestDtos.add(ItemMapper.makeItemForRequestDto(item));
-                }
-            }
-            itemRequest.setItems(itemForRequestDtos);
-        }
+        setItems(itemsRequests);
         return itemsRequests;
     }
 
@@ -66,16 +58,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .stream()
                 .map(ItemRequestMapper::makeItemRequestDto)
                 .collect(Collectors.toList());
-        List<Item> items = itemRepository.findAll();
-        for (ItemRequestDto itemRequest : itemsRequests) {
-            List<ItemForRequestDto> itemForRequestDtos = new ArrayList<>();
-            for (Item item : items) {
-                if (item.getRequestId() == itemRequest.getId()) {
-                    itemForRequestDtos.add(ItemMapper.makeItemForRequestDto(item));
-                }
-            }
-            itemRequest.setItems(itemForRequestDtos);
-        }
+        setItems(itemsRequests);
         return itemsRequests;
     }
 
@@ -89,6 +72,14 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public String getItemRequestETag(long userId, long itemRequestId) {
+        checkUserId(userId);
+        return itemRequestsRepository.findVersionById(itemRequestId)
+                .map(String::valueOf)
+                .orElse(null);
+    }
+
     @Override
     public ItemRequestDto getItemRequestById(long userId, long itemRequestId) {
         checkUserId(userId);
@@ -105,8 +96,24 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         }
     }
 
+    private void setItems(List<ItemRequestDto> itemsRequests) {
+        if (itemsRequests.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = itemsRequests.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemForRequestDto>> items = itemRepository.findByRequestIdIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId,
+                        Collectors.mapping(ItemMapper::makeItemForRequestDto, Collectors.toList())));
+        for (ItemRequestDto itemRequest : itemsRequests) {
+            itemRequest.setItems(items.getOrDefault(itemRequest.getId(), new ArrayList<>()));
+        }
+    }
+
     private void checkUserId(long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userService.existsById(userId)) {
             log.error(String.format("User with id = %s not found", userId));
             throw new NotFoundException(String.format("User with id = %s not found", userId));
         }
@@ -3,9 +3,20 @@ package ru.practicum.shareit.request;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestsRepository extends JpaRepository<ItemRequest, Long> {
+    /**
+     * Indexes on {@code item_requests} the finders below are planned on: {@code getItemRequestByUserIdOrderByCreated}
+     * uses {@code (user_id, created)}, {@code findAllNotForUserId} uses {@code (created)}.
+     */
+    List<String> INDEXES = List.of("ix_item_requests_user_created", "ix_item_requests_created");
 
     Page<ItemRequest> getItemRequestByUserIdOrderByCreated(long userId, Pageable pageable);
 
@@ -13,5 +24,17 @@ public interface ItemRequestsRepository extends JpaRepository<ItemRequest, Long>
             "ORDER BY CREATED Asc", nativeQuery = true)
     Page<ItemRequest> findAllNotForUserId(long bookerId, Pageable pageable);
 
+    @Query("SELECT r.version FROM ItemRequest r WHERE r.id = ?1")
+    Optional<Long> findVersionById(long requestId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ItemRequest r SET r.version = r.version + 1 WHERE r.id = ?1")
+    int incrementVersion(long requestId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ItemRequest r SET r.version = r.version + 1 WHERE r.id IN ?1")
+    int incrementVersions(Collection<Long> requestIds);
 
 }
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Keeps the open spans of each thread, so that service calls and JDBC statements become children
+ * of the request span without passing it around.
+ */
+public class CurrentSpanTracer {
+    /**
+     * Holds a deque only while a server span is open on the thread, so that untraced threads allocate nothing.
+     */
+    private final ThreadLocal<Deque<Span>> current = new ThreadLocal<>();
+
+    private final Tracer tracer;
+
+    public CurrentSpanTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    public Span startServerSpan(@Nullable String traceParent, String name) {
+        Span span = tracer.startServerSpan(traceParent, name);
+        Deque<Span> spans = current.get();
+        if (spans == null) {
+            spans = new ArrayDeque<>();
+            current.set(spans);
+        }
+        spans.push(span);
+        return span;
+    }
+
+    /**
+     * Starts a child of the current span, or returns {@code null} when this thread is not inside a sampled trace.
+     */
+    @Nullable
+    public Span startSpan(String name, SpanKind kind) {
+        Deque<Span> spans = current.get();
+        Span parent = spans != null ? spans.peek() : null;
+        if (parent == null || !parent.isSampled()) {
+            return null;
+        }
+        Span span = tracer.startSpan(parent, name, kind);
+        spans.push(span);
+        return span;
+    }
+
+    public void end(@Nullable Span span) {
+        if (span == null) {
+            return;
+        }
+        Deque<Span> spans = current.get();
+        if (spans != null) {
+            spans.remove(span);
+            if (spans.isEmpty()) {
+                current.remove();
+            }
+        }
+        tracer.end(span);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Opens a server span per request and child spans for service calls and JDBC statements on the request thread.
+ */
+@Configuration
+@ConditionalOnExpression("'${shareit.tracing.exporter:none}' != 'none'")
+public class ServerTracingConfig {
+
+    @Bean
+    public CurrentSpanTracer currentSpanTracer(Tracer tracer) {
+        return new CurrentSpanTracer(tracer);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(CurrentSpanTracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public ServiceTracingAspect serviceTracingAspect(CurrentSpanTracer tracer) {
+        return new ServiceTracingAspect(tracer);
+    }
+
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(ObjectProvider<CurrentSpanTracer> tracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource((DataSource) bean, tracer.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Wraps every public method of the {@code @Service} beans in a span. It runs outside the transaction and cache
+ * advice, so a span covers the commit and a cache hit shows up as a span without statements.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceTracingAspect {
+    private final CurrentSpanTracer tracer;
+
+    @Around("within(@org.springframework.stereotype.Service *)")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        Span span = tracer.startSpan(joinPoint.getTarget().getClass().getSimpleName() + "."
+                + joinPoint.getSignature().getName(), SpanKind.INTERNAL);
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            if (span != null) {
+                span.setError(e);
+            }
+            throw e;
+        } finally {
+            tracer.end(span);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Hands out connections whose statements open a span per execution inside a sampled trace,
+ * named after the SQL verb and carrying the statement text.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final CurrentSpanTracer tracer;
+
+    public TracingDataSource(DataSource targetDataSource, CurrentSpanTracer tracer) {
+        super(targetDataSource);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return traced(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return traced(super.getConnection(username, password));
+    }
+
+    private Connection traced(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        return traced((Statement) result, method.getReturnType(), sqlArgument(args));
+                    }
+                    return result;
+                });
+    }
+
+    private Object traced(Statement statement, Class<?> type, @Nullable String preparedSql) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (!EXECUTE_METHODS.contains(method.getName())) {
+                return invoke(statement, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql : sqlArgument(args);
+            Span span = tracer.startSpan("jdbc " + verb(sql, method), SpanKind.CLIENT);
+            try {
+                if (span != null && sql != null) {
+                    span.setAttribute("db.statement", WHITESPACE.matcher(sql.trim()).replaceAll(" "));
+                }
+                return invoke(statement, method, args);
+            } catch (Throwable e) {
+                if (span != null) {
+                    span.setError(e);
+                }
+                throw e;
+            } finally {
+                tracer.end(span);
+            }
+        });
+    }
+
+    @Nullable
+    private static String sqlArgument(@Nullable Object[] args) {
+        return args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+    }
+
+    private static String verb(@Nullable String sql, Method method) {
+        if (sql == null || sql.isBlank()) {
+            return method.getName();
+        }
+        return WHITESPACE.split(sql.trim(), 2)[0].toLowerCase(Locale.ROOT);
+    }
+
+    private static Object invoke(Object target, Method method, @Nullable Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Opens the server span of each request, named after the matched route like http.server.requests.
+ */
+@RequiredArgsConstructor
+public class TracingFilter extends OncePerRequestFilter {
+    private final CurrentSpanTracer tracer;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span span = tracer.startServerSpan(request.getHeader(Tracer.TRACE_PARENT),
+                request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.setError(e);
+            throw e;
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                span.setName(request.getMethod() + " " + pattern);
+                span.setAttribute("http.route", pattern.toString());
+            }
+            span.setAttribute("http.method", request.getMethod());
+            span.setAttribute("http.status_code", response.getStatus());
+            tracer.end(span);
+        }
+    }
+}
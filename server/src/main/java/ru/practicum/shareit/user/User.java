@@ -15,13 +15,16 @@ import java.util.Objects;
 @Data
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private long id;
     @Email
     @Column(unique = true)
     private String email;
     @NotNull
     private String name;
+    @Version
+    private long version;
 
     @Override
     public boolean equals(Object o) {
@@ -2,7 +2,9 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserViewDto;
 
 import java.util.List;
 
@@ -22,7 +24,10 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable Long userId) {
+    public UserViewDto getUserById(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(userService.getUserETag(userId))) {
+            return null;
+        }
         return userService.getUserById(userId);
     }
 
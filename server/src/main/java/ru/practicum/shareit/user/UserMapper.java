@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserViewDto;
 
 @Component
 public class UserMapper {
@@ -14,6 +15,14 @@ public class UserMapper {
         return user;
     }
 
+    public static User makeUser(UserViewDto userDto) {
+        User user = new User();
+        user.setId(userDto.getId());
+        user.setName(userDto.getName());
+        user.setEmail(userDto.getEmail());
+        return user;
+    }
+
     public static UserDto makeUserDto(User user) {
         UserDto userDto = new UserDto();
         userDto.setId(user.getId());
@@ -21,4 +30,8 @@ public class UserMapper {
         userDto.setEmail(user.getEmail());
         return userDto;
     }
+
+    public static UserViewDto makeUserViewDto(User user) {
+        return new UserViewDto(user.getId(), user.getEmail(), user.getName());
+    }
 }
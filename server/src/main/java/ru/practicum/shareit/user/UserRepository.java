@@ -1,6 +1,11 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query("SELECT u.version FROM User u WHERE u.id = ?1")
+    Optional<Long> findVersionById(long userId);
 }
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.user;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserViewDto;
 
 import java.util.List;
 
 public interface UserService {
     List<UserDto> getAllUsers();
 
-    UserDto getUserById(Long userId);
+    UserViewDto getUserById(Long userId);
+
+    String getUserETag(long userId);
+
+    boolean existsById(long userId);
 
     UserDto saveNewUser(UserDto userDto);
 
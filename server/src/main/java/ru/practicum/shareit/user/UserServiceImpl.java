@@ -2,9 +2,18 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequestsRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserViewDto;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +26,12 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
 
+    private final ItemSearchIndex itemSearchIndex;
+
+    private final ItemRepository itemRepository;
+
+    private final ItemRequestsRepository itemRequestsRepository;
+
     @Override
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
@@ -24,15 +39,29 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public UserDto getUserById(Long userId) {
+    @Cacheable(value = CacheConfig.USERS, key = "#userId")
+    public UserViewDto getUserById(Long userId) {
         Optional<User> user = userRepository.findById(userId);
         if (user.isPresent()) {
-            return UserMapper.makeUserDto(user.get());
+            return UserMapper.makeUserViewDto(user.get());
         } else {
             throw new NotFoundException("Unknown user id");
         }
     }
 
+    @Override
+    public String getUserETag(long userId) {
+        return userRepository.findVersionById(userId)
+                .map(String::valueOf)
+                .orElse(null);
+    }
+
+    @Override
+    @Cacheable(value = CacheConfig.USER_EXISTS, key = "#userId", unless = "!#result")
+    public boolean existsById(long userId) {
+        return userRepository.existsById(userId);
+    }
+
     @Override
     public UserDto saveNewUser(UserDto userDto) {
         User user = UserMapper.makeUser(userDto);
@@ -41,21 +70,34 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(value = CacheConfig.USERS, key = "#userId")
     public UserDto updateUser(Long userId, UserDto userDto) {
-        UserDto userDto1 = getUserById(userId);
-        if (userDto.getName() == null) {
-            userDto.setName(userDto1.getName());
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Unknown user id"));
+        if (userDto.getName() != null) {
+            user.setName(userDto.getName());
         }
-        if (userDto.getEmail() == null) {
-            userDto.setEmail(userDto1.getEmail());
+        if (userDto.getEmail() != null) {
+            user.setEmail(userDto.getEmail());
         }
-        userDto.setId(userId);
         return UserMapper
-                .makeUserDto(userRepository.save(UserMapper.makeUser(userDto)));
+                .makeUserDto(userRepository.save(user));
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.USERS, key = "#userId"),
+            @CacheEvict(value = CacheConfig.USER_EXISTS, key = "#userId"),
+            @CacheEvict(value = CacheConfig.ITEMS, allEntries = true)
+    })
+    @Transactional
     public void deleteUser(Long userId) {
+        List<Long> answeredRequestIds = itemRepository.findRequestIdsByUserId(userId);
         userRepository.deleteById(userId);
+        if (!answeredRequestIds.isEmpty()) {
+            // the user's items go with the user, so the requests they answered change too
+            itemRequestsRepository.incrementVersions(answeredRequestIds);
+        }
+        itemSearchIndex.removeByOwner(userId);
     }
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.Value;
+
+/**
+ * A user as it is read back. Immutable, since one instance is shared by every reader of the users cache.
+ */
+@Value
+public class UserViewDto {
+    long id;
+    String email;
+    String name;
+}
@@ -4,45 +4,73 @@ drop table if exists bookings;
 drop table if exists items;
 drop table if exists users;
 
+CREATE SEQUENCE IF NOT EXISTS users_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_requests_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-                                     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                     id BIGINT NOT NULL,
                                      name VARCHAR(255) NOT NULL,
                                      email VARCHAR(512) NOT NULL,
+                                     version BIGINT NOT NULL DEFAULT 0,
                                      CONSTRAINT pk_user PRIMARY KEY (id),
                                      CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
 CREATE TABLE IF NOT EXISTS items (
-                                     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                     id BIGINT NOT NULL,
                                      name VARCHAR(255) NOT NULL,
                                      description VARCHAR(512) NOT NULL,
                                      user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
                                      available BOOLEAN NOT NULL,
                                      request_id BIGINT,
+                                     version BIGINT NOT NULL DEFAULT 0,
                                      CONSTRAINT pk_item PRIMARY KEY (id)
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-                                        id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                        id BIGINT NOT NULL,
                                         booker_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
                                         item_id BIGINT REFERENCES items(id) ON DELETE CASCADE,
                                         status VARCHAR(25) NOT NULL,
                                         start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-                                        end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL
+                                        end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+                                        version BIGINT NOT NULL DEFAULT 0,
+                                        CONSTRAINT pk_booking PRIMARY KEY (id)
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-                                        id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                        id BIGINT NOT NULL,
                                         user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
                                         author_name VARCHAR(50) NOT NULL,
                                         item_id BIGINT REFERENCES items(id) ON DELETE CASCADE,
                                         text VARCHAR(200) NOT NULL,
-                                        created TIMESTAMP WITHOUT TIME ZONE NOT NULL
+                                        created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+                                        CONSTRAINT pk_comment PRIMARY KEY (id)
 );
 
 create table IF NOT EXISTS item_requests (
-                                             id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                             id BIGINT NOT NULL,
                                              description VARCHAR(50) NOT NULL,
                                              user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-                                             created TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+                                             created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+                                             version BIGINT NOT NULL DEFAULT 0,
+                                             CONSTRAINT pk_item_request PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_items_user_id ON items (user_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request_id ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start ON bookings (booker_id, status, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_end ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_end ON bookings (item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item_id ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS ix_item_requests_user_created ON item_requests (user_id, created);
+CREATE INDEX IF NOT EXISTS ix_item_requests_created ON item_requests (created);
\ No newline at end of file
@@ -0,0 +1,33 @@
+package ru.practicum.shareit;
+
+import ru.practicum.shareit.config.SqlStatementCounter;
+
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Asserts how many SQL statements a call issues; on failure the message lists the query shapes that were counted.
+ * Flush and clear the entity manager first, so that neither pending writes nor cached entities skew the count;
+ * flush inside the call to count its writes. Budgets for inserts leave room for one id sequence call.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static <T> T assertMaxStatements(SqlStatementCounter counter, int maxStatements, Supplier<T> call) {
+        counter.start();
+        T result;
+        SqlStatementCounter.Statements statements;
+        try {
+            result = call.get();
+        } finally {
+            statements = counter.stop();
+        }
+        assertThat("SQL statements " + statements.getShapes(), statements.getCount(),
+                lessThanOrEqualTo(maxStatements));
+        return result;
+    }
+}
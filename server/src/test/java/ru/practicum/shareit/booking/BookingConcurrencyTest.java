@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserServiceImpl;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+/**
+ * Approvals that race each other must commit, so this class runs without the rolled back test transaction
+ * and removes its rows afterwards.
+ */
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConcurrencyTest {
+
+    private final BookingServiceImpl service;
+
+    private final ItemServiceImpl itemService;
+
+    private final UserServiceImpl userService;
+
+    private final BookingRepository repository;
+
+    private final ItemRepository itemRepository;
+
+    private final UserRepository userRepository;
+
+    private UserDto owner;
+
+    private UserDto booker;
+
+    private ItemDto item;
+
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void saveUsersItemAndBookings() {
+        UserDto userDtoNotSaved = new UserDto();
+        userDtoNotSaved.setName("Owner");
+        userDtoNotSaved.setEmail("concurrent-owner@mail.ru");
+        owner = userService.saveNewUser(userDtoNotSaved);
+        userDtoNotSaved.setName("Booker");
+        userDtoNotSaved.setEmail("concurrent-booker@mail.ru");
+        booker = userService.saveNewUser(userDtoNotSaved);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Name");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        item = itemService.saveNewItem(owner.getId(), itemDto);
+        for (int i = 0; i < 2; i++) {
+            Booking booking = new Booking();
+            booking.setItem(itemService.getItemById(item.getId()));
+            booking.setBooker(UserMapper.makeUser(booker));
+            booking.setStart(LocalDateTime.now().plusDays(1 + i));
+            booking.setEnd(LocalDateTime.now().plusDays(3 + i));
+            booking.setStatus(BookingStatus.WAITING);
+            bookingIds.add(repository.save(booking).getId());
+        }
+    }
+
+    @AfterEach
+    void deleteUsersItemAndBookings() {
+        repository.deleteAllById(bookingIds);
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteAllById(List.of(owner.getId(), booker.getId()));
+    }
+
+    @Test
+    void concurrentApprovalsOfOverlappingBookingsApproveOneTest() throws Exception {
+        List<Throwable> failures = race(
+                () -> service.bookingConfirmation(owner.getId(), bookingIds.get(0), true),
+                () -> service.bookingConfirmation(owner.getId(), bookingIds.get(1), true));
+
+        assertThat(failures.size(), equalTo(1));
+        assertThat(failures.get(0).getMessage(), equalTo("This item is already booked for these dates"));
+        assertThat(countApproved(), equalTo(1L));
+    }
+
+    @Test
+    void approvalRacingBulkApprovalApprovesOneTest() throws Exception {
+        List<Throwable> failures = race(
+                () -> service.bookingConfirmation(owner.getId(), bookingIds.get(1), true),
+                () -> service.bookingsConfirmation(owner.getId(), null, item.getId(), true));
+
+        for (Throwable failure : failures) {
+            assertThat(failure, anyOf(instanceOf(IllegalArgumentException.class),
+                    instanceOf(OptimisticLockingFailureException.class)));
+        }
+        assertThat(countApproved(), equalTo(1L));
+    }
+
+    private List<Throwable> race(Callable<?> first, Callable<?> second) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Callable<?> call : List.of(first, second)) {
+            futures.add(executor.submit(() -> {
+                barrier.await();
+                return call.call();
+            }));
+        }
+        List<Throwable> failures = new ArrayList<>();
+        try {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return failures;
+    }
+
+    private long countApproved() {
+        return repository.findAllById(bookingIds).stream()
+                .filter(b -> b.getStatus() == BookingStatus.APPROVED)
+                .count();
+    }
+}
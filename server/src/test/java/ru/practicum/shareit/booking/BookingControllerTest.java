@@ -16,6 +16,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -23,6 +24,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -142,6 +144,26 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.id", is(1)));
     }
 
+    @Test
+    void getBookingsByBookerIdReturnsNextCursorOfFullPageTest() throws Exception {
+        bookingResponseDto.setStart(LocalDateTime.of(2030, 1, 1, 12, 0));
+        when(service.getBookingsByBookerIdAfter(anyLong(), any(), anyString(), anyInt()))
+                .thenReturn(Arrays.asList(bookingResponseDto));
+
+        mvc.perform(get("/bookings?state=ALL&size=1&cursor=2030-01-02T12:00_5")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, "2030-01-01T12:00_1"))
+                .andExpect(jsonPath("$[0].id", is(1)));
+
+        mvc.perform(get("/bookings?state=ALL&size=2&cursor=2030-01-02T12:00_5")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
+    }
+
     @Test
     void getBookingsForAllItemsByOwnerIdWithPaginationTest() throws Exception {
         when(service.getBookingsForAllItemsByOwnerId(anyLong(), any(), anyInt(), anyInt()))
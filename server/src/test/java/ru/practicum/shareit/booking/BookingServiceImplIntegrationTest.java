@@ -6,12 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.config.SqlStatementCounter;
 import ru.practicum.shareit.exception.NotFoundException;
-import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemServiceImpl;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserServiceImpl;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -19,11 +21,18 @@ import ru.practicum.shareit.user.dto.UserDto;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.SqlStatementAssertions.assertMaxStatements;
 
 @Transactional
 @SpringBootTest(
@@ -42,6 +51,8 @@ public class BookingServiceImplIntegrationTest {
 
     private final BookingRepository repository;
 
+    private final SqlStatementCounter counter;
+
     private UserDto userDtoSaved1;
 
     private UserDto userDtoSaved2;
@@ -91,6 +102,21 @@ public class BookingServiceImplIntegrationTest {
         assertThat(booking.getItem().getId(), equalTo(itemFromService.getId()));
     }
 
+    @Test
+    void savedBookingsDoNotShareCachedItemTest() {
+        BookingRequestDto bookingRequestDto = new BookingRequestDto();
+        bookingRequestDto.setItemId(itemFromService.getId());
+        bookingRequestDto.setStart(LocalDateTime.now().plusSeconds(40));
+        bookingRequestDto.setEnd(LocalDateTime.now().plusSeconds(80));
+        BookingResponseDto first = service.saveNewBooking(userDtoSaved2.getId(), bookingRequestDto);
+        first.getItem().setName("Changed");
+        BookingResponseDto second = service.saveNewBooking(userDtoSaved2.getId(), bookingRequestDto);
+
+        assertThat(second.getItem(), not(sameInstance(first.getItem())));
+        assertThat(second.getItem().getName(), equalTo(itemFromService.getName()));
+        assertThat(second.getItem().getUserId(), equalTo(userDtoSaved1.getId()));
+    }
+
     @Test
     void saveNewBookingWithWrongUserTest() {
         BookingRequestDto bookingRequestDto = new BookingRequestDto();
@@ -109,7 +135,7 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void bookingApprovedConformationTest() {
         Booking booking = new Booking();
-        booking.setItem(ItemMapper.makeItem(itemFromService));
+        booking.setItem(em.find(Item.class, itemFromService.getId()));
         booking.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking.setStart(LocalDateTime.now().plusSeconds(10));
         booking.setEnd(LocalDateTime.now().plusSeconds(15));
@@ -132,7 +158,7 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void bookingRejectedConformationTest() {
         Booking booking = new Booking();
-        booking.setItem(ItemMapper.makeItem(itemFromService));
+        booking.setItem(em.find(Item.class, itemFromService.getId()));
         booking.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking.setStart(LocalDateTime.now().plusSeconds(10));
         booking.setEnd(LocalDateTime.now().plusSeconds(15));
@@ -155,7 +181,7 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void bookingAlreadyApprovedConformationTest() {
         Booking booking = new Booking();
-        booking.setItem(ItemMapper.makeItem(itemFromService));
+        booking.setItem(em.find(Item.class, itemFromService.getId()));
         booking.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking.setStart(LocalDateTime.now().plusSeconds(10));
         booking.setEnd(LocalDateTime.now().plusSeconds(15));
@@ -170,6 +196,195 @@ public class BookingServiceImplIntegrationTest {
         }
     }
 
+    @Test
+    void saveNewBookingOverlappingApprovedBookingTest() {
+        Booking booking = new Booking();
+        booking.setItem(em.find(Item.class, itemFromService.getId()));
+        booking.setBooker(UserMapper.makeUser(userDtoSaved2));
+        booking.setStart(LocalDateTime.now().plusSeconds(100));
+        booking.setEnd(LocalDateTime.now().plusSeconds(200));
+        booking.setStatus(BookingStatus.APPROVED);
+        repository.save(booking);
+        BookingRequestDto bookingRequestDto = new BookingRequestDto();
+        bookingRequestDto.setItemId(itemFromService.getId());
+        bookingRequestDto.setStart(LocalDateTime.now().plusSeconds(150));
+        bookingRequestDto.setEnd(LocalDateTime.now().plusSeconds(250));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.saveNewBooking(userDtoSaved2.getId(), bookingRequestDto));
+
+        assertThat(e.getMessage(), equalTo("This item is already booked for these dates"));
+    }
+
+    @Test
+    void saveNewBookingsTest() {
+        Booking approved = new Booking();
+        approved.setItem(em.find(Item.class, itemFromService2.getId()));
+        approved.setBooker(UserMapper.makeUser(userDtoSaved2));
+        approved.setStart(LocalDateTime.now().plusDays(1));
+        approved.setEnd(LocalDateTime.now().plusDays(3));
+        approved.setStatus(BookingStatus.APPROVED);
+        repository.save(approved);
+
+        BookingRequestDto valid = new BookingRequestDto();
+        valid.setItemId(itemFromService.getId());
+        valid.setStart(LocalDateTime.now().plusDays(1));
+        valid.setEnd(LocalDateTime.now().plusDays(2));
+        BookingRequestDto overlapping = new BookingRequestDto();
+        overlapping.setItemId(itemFromService2.getId());
+        overlapping.setStart(LocalDateTime.now().plusDays(2));
+        overlapping.setEnd(LocalDateTime.now().plusDays(4));
+        BookingRequestDto unknownItem = new BookingRequestDto();
+        unknownItem.setItemId(itemFromService2.getId() + 100);
+        unknownItem.setStart(LocalDateTime.now().plusDays(1));
+        unknownItem.setEnd(LocalDateTime.now().plusDays(2));
+        BookingRequestDto wrongDates = new BookingRequestDto();
+        wrongDates.setItemId(itemFromService.getId());
+        wrongDates.setStart(LocalDateTime.now().plusDays(2));
+        wrongDates.setEnd(LocalDateTime.now().plusDays(1));
+        BookingRequestDto secondValid = new BookingRequestDto();
+        secondValid.setItemId(itemFromService2.getId());
+        secondValid.setStart(LocalDateTime.now().plusDays(4));
+        secondValid.setEnd(LocalDateTime.now().plusDays(5));
+
+        List<BookingBatchResultDto> results = service.saveNewBookings(userDtoSaved2.getId(),
+                List.of(valid, overlapping, unknownItem, wrongDates, secondValid));
+
+        assertThat(results.size(), equalTo(5));
+        assertThat(results.get(0).getBooking().getItem().getId(), equalTo(itemFromService.getId()));
+        assertThat(results.get(0).getBooking().getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(results.get(1).getError(), equalTo("This item is already booked for these dates"));
+        assertThat(results.get(2).getError(), equalTo("Unknown item id"));
+        assertThat(results.get(3).getError(), equalTo("Booking time error"));
+        assertThat(results.get(4).getBooking().getItem().getId(), equalTo(itemFromService2.getId()));
+        assertThat(repository.findById(results.get(4).getBooking().getId()).isPresent(), equalTo(true));
+    }
+
+    @Test
+    void saveNewBookingsInConstantNumberOfStatementsTest() {
+        UserDto userDtoNotSaved = new UserDto();
+        for (int i = 0; i < 10; i++) {
+            userDtoNotSaved.setName("Booker" + i);
+            userDtoNotSaved.setEmail("booker" + i + "@mail.ru");
+            Booking approved = new Booking();
+            approved.setItem(em.find(Item.class, itemFromService2.getId()));
+            approved.setBooker(UserMapper.makeUser(userService.saveNewUser(userDtoNotSaved)));
+            approved.setStart(LocalDateTime.now().plusDays(1 + i));
+            approved.setEnd(LocalDateTime.now().plusDays(2 + i));
+            approved.setStatus(BookingStatus.APPROVED);
+            repository.save(approved);
+        }
+        BookingRequestDto valid = new BookingRequestDto();
+        valid.setItemId(itemFromService.getId());
+        valid.setStart(LocalDateTime.now().plusDays(1));
+        valid.setEnd(LocalDateTime.now().plusDays(2));
+        BookingRequestDto overlapping = new BookingRequestDto();
+        overlapping.setItemId(itemFromService2.getId());
+        overlapping.setStart(LocalDateTime.now().plusDays(3));
+        overlapping.setEnd(LocalDateTime.now().plusDays(4));
+        em.flush();
+        em.clear();
+
+        List<BookingBatchResultDto> results = assertMaxStatements(counter, 5, () -> {
+            List<BookingBatchResultDto> saved = service.saveNewBookings(userDtoSaved2.getId(),
+                    List.of(valid, overlapping));
+            em.flush();
+            return saved;
+        });
+
+        assertThat(results.get(0).getBooking().getItem().getId(), equalTo(itemFromService.getId()));
+        assertThat(results.get(1).getError(), equalTo("This item is already booked for these dates"));
+    }
+
+    @Test
+    void bookingsConfirmationForItemTest() {
+        Booking first = new Booking();
+        first.setItem(em.find(Item.class, itemFromService.getId()));
+        first.setBooker(UserMapper.makeUser(userDtoSaved2));
+        first.setStart(LocalDateTime.now().plusDays(1));
+        first.setEnd(LocalDateTime.now().plusDays(3));
+        first.setStatus(BookingStatus.WAITING);
+        first = repository.save(first);
+        Booking overlapping = new Booking();
+        overlapping.setItem(em.find(Item.class, itemFromService.getId()));
+        overlapping.setBooker(UserMapper.makeUser(userDtoSaved2));
+        overlapping.setStart(LocalDateTime.now().plusDays(2));
+        overlapping.setEnd(LocalDateTime.now().plusDays(4));
+        overlapping.setStatus(BookingStatus.WAITING);
+        overlapping = repository.save(overlapping);
+        Booking other = new Booking();
+        other.setItem(em.find(Item.class, itemFromService2.getId()));
+        other.setBooker(UserMapper.makeUser(userDtoSaved2));
+        other.setStart(LocalDateTime.now().plusDays(1));
+        other.setEnd(LocalDateTime.now().plusDays(2));
+        other.setStatus(BookingStatus.WAITING);
+        other = repository.save(other);
+
+        List<BookingResponseDto> approved = service.bookingsConfirmation(userDtoSaved1.getId(), null,
+                itemFromService.getId(), true);
+
+        assertThat(approved.size(), equalTo(1));
+        assertThat(approved.get(0).getId(), equalTo(first.getId()));
+        assertThat(repository.findById(first.getId()).orElseThrow().getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(repository.findById(overlapping.getId()).orElseThrow().getStatus(), equalTo(BookingStatus.WAITING));
+
+        List<BookingResponseDto> rejected = service.bookingsConfirmation(userDtoSaved1.getId(),
+                List.of(overlapping.getId(), other.getId()), null, false);
+
+        assertThat(rejected.size(), equalTo(2));
+        assertThat(repository.findById(other.getId()).orElseThrow().getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(service.bookingsConfirmation(userDtoSaved2.getId(), List.of(first.getId()), null, false).size(),
+                equalTo(0));
+    }
+
+    @Test
+    void bookingsConfirmationInConstantNumberOfStatementsTest() {
+        UserDto userDtoNotSaved = new UserDto();
+        for (int i = 0; i < 10; i++) {
+            userDtoNotSaved.setName("Booker" + i);
+            userDtoNotSaved.setEmail("booker" + i + "@mail.ru");
+            Booking approved = new Booking();
+            approved.setItem(em.find(Item.class, itemFromService.getId()));
+            approved.setBooker(UserMapper.makeUser(userService.saveNewUser(userDtoNotSaved)));
+            approved.setStart(LocalDateTime.now().plusDays(1 + i));
+            approved.setEnd(LocalDateTime.now().plusDays(2 + i));
+            approved.setStatus(BookingStatus.APPROVED);
+            repository.save(approved);
+        }
+        List<Long> waitingIds = new ArrayList<>();
+        for (int days : List.of(3, 20, 30)) {
+            Booking waiting = new Booking();
+            waiting.setItem(em.find(Item.class, itemFromService.getId()));
+            waiting.setBooker(UserMapper.makeUser(userDtoSaved2));
+            waiting.setStart(LocalDateTime.now().plusDays(days));
+            waiting.setEnd(LocalDateTime.now().plusDays(days + 1));
+            waiting.setStatus(BookingStatus.WAITING);
+            waitingIds.add(repository.save(waiting).getId());
+        }
+        em.flush();
+        em.clear();
+
+        List<BookingResponseDto> approved = assertMaxStatements(counter, 6,
+                () -> service.bookingsConfirmation(userDtoSaved1.getId(), null, itemFromService.getId(), true));
+
+        assertThat(approved.stream().map(BookingResponseDto::getId).collect(Collectors.toList()),
+                equalTo(waitingIds.subList(1, 3)));
+    }
+
+    @Test
+    void bookingApprovedOverlappingConformationTest() {
+        BookingRequestDto bookingRequestDto = new BookingRequestDto();
+        bookingRequestDto.setItemId(itemFromService.getId());
+        bookingRequestDto.setStart(LocalDateTime.now().plusSeconds(100));
+        bookingRequestDto.setEnd(LocalDateTime.now().plusSeconds(200));
+        BookingResponseDto first = service.saveNewBooking(userDtoSaved2.getId(), bookingRequestDto);
+        BookingResponseDto second = service.saveNewBooking(userDtoSaved2.getId(), bookingRequestDto);
+        service.bookingConfirmation(userDtoSaved1.getId(), first.getId(), true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.bookingConfirmation(userDtoSaved1.getId(), second.getId(), true));
+    }
+
     @Test
     void getBookingByWrongIdTest() {
         try {
@@ -182,7 +397,7 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingById() {
         Booking newBooking = new Booking();
-        newBooking.setItem(ItemMapper.makeItem(itemFromService));
+        newBooking.setItem(em.find(Item.class, itemFromService.getId()));
         newBooking.setStart(LocalDateTime.now().minusSeconds(10));
         newBooking.setEnd(LocalDateTime.now().minusSeconds(5));
         newBooking.setBooker(UserMapper.makeUser(userDtoSaved2));
@@ -205,7 +420,7 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingByIdByBookerTest() {
         Booking newBooking = new Booking();
-        newBooking.setItem(ItemMapper.makeItem(itemFromService));
+        newBooking.setItem(em.find(Item.class, itemFromService.getId()));
         newBooking.setStart(LocalDateTime.now().minusSeconds(10));
         newBooking.setEnd(LocalDateTime.now().minusSeconds(5));
         newBooking.setBooker(UserMapper.makeUser(userDtoSaved2));
@@ -226,14 +441,14 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingsByBookerIdWithCurrenStateWithPaginationTest() {
         Booking booking1 = new Booking();
-        booking1.setItem(ItemMapper.makeItem(itemFromService));
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
         booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking1.setStart(LocalDateTime.now().minusSeconds(30));
         booking1.setEnd(LocalDateTime.now().plusSeconds(10));
         booking1.setStatus(BookingStatus.APPROVED);
         repository.save(booking1);
         Booking booking2 = new Booking();
-        booking2.setItem(ItemMapper.makeItem(itemFromService2));
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
         booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking2.setStart(LocalDateTime.now().minusSeconds(30));
         booking2.setEnd(LocalDateTime.now().plusSeconds(10));
@@ -249,14 +464,14 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingsByBookerIdWithPastStateWithPaginationTest() {
         Booking booking1 = new Booking();
-        booking1.setItem(ItemMapper.makeItem(itemFromService));
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
         booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking1.setStart(LocalDateTime.now().minusSeconds(100));
         booking1.setEnd(LocalDateTime.now().minusSeconds(50));
         booking1.setStatus(BookingStatus.APPROVED);
         repository.save(booking1);
         Booking booking2 = new Booking();
-        booking2.setItem(ItemMapper.makeItem(itemFromService2));
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
         booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking2.setStart(LocalDateTime.now().minusSeconds(100));
         booking2.setEnd(LocalDateTime.now().minusSeconds(50));
@@ -272,14 +487,14 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingsByBookerIdWithFutureStateWithPaginationTest() {
         Booking booking1 = new Booking();
-        booking1.setItem(ItemMapper.makeItem(itemFromService));
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
         booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking1.setStart(LocalDateTime.now().plusSeconds(100));
         booking1.setEnd(LocalDateTime.now().plusSeconds(120));
         booking1.setStatus(BookingStatus.APPROVED);
         repository.save(booking1);
         Booking booking2 = new Booking();
-        booking2.setItem(ItemMapper.makeItem(itemFromService2));
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
         booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking2.setStart(LocalDateTime.now().plusSeconds(100));
         booking2.setEnd(LocalDateTime.now().plusSeconds(120));
@@ -295,14 +510,14 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingsByBookerIdWithRejectedStateWithPaginationTest() {
         Booking booking1 = new Booking();
-        booking1.setItem(ItemMapper.makeItem(itemFromService));
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
         booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking1.setStart(LocalDateTime.now().plusSeconds(100));
         booking1.setEnd(LocalDateTime.now().plusSeconds(120));
         booking1.setStatus(BookingStatus.REJECTED);
         repository.save(booking1);
         Booking booking2 = new Booking();
-        booking2.setItem(ItemMapper.makeItem(itemFromService2));
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
         booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking2.setStart(LocalDateTime.now().plusSeconds(100));
         booking2.setEnd(LocalDateTime.now().plusSeconds(120));
@@ -318,14 +533,14 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingsByBookerIdWithWaitingStateWithPaginationTest() {
         Booking booking1 = new Booking();
-        booking1.setItem(ItemMapper.makeItem(itemFromService));
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
         booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking1.setStart(LocalDateTime.now().plusSeconds(100));
         booking1.setEnd(LocalDateTime.now().plusSeconds(120));
         booking1.setStatus(BookingStatus.WAITING);
         repository.save(booking1);
         Booking booking2 = new Booking();
-        booking2.setItem(ItemMapper.makeItem(itemFromService2));
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
         booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking2.setStart(LocalDateTime.now().plusSeconds(100));
         booking2.setEnd(LocalDateTime.now().plusSeconds(120));
@@ -341,14 +556,14 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingsByBookerIdWithoutStateWithPaginationTest() {
         Booking booking1 = new Booking();
-        booking1.setItem(ItemMapper.makeItem(itemFromService));
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
         booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking1.setStart(LocalDateTime.now().plusSeconds(100));
         booking1.setEnd(LocalDateTime.now().plusSeconds(120));
         booking1.setStatus(BookingStatus.WAITING);
         repository.save(booking1);
         Booking booking2 = new Booking();
-        booking2.setItem(ItemMapper.makeItem(itemFromService2));
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
         booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking2.setStart(LocalDateTime.now().plusSeconds(100));
         booking2.setEnd(LocalDateTime.now().plusSeconds(120));
@@ -364,14 +579,14 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingsForAllItemsByOwnerIdWithCurrenStateWithPaginationTest() {
         Booking booking1 = new Booking();
-        booking1.setItem(ItemMapper.makeItem(itemFromService));
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
         booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking1.setStart(LocalDateTime.now().minusSeconds(30));
         booking1.setEnd(LocalDateTime.now().plusSeconds(10));
         booking1.setStatus(BookingStatus.APPROVED);
         repository.save(booking1);
         Booking booking2 = new Booking();
-        booking2.setItem(ItemMapper.makeItem(itemFromService2));
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
         booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking2.setStart(LocalDateTime.now().minusSeconds(30));
         booking2.setEnd(LocalDateTime.now().plusSeconds(10));
@@ -387,14 +602,14 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingsForAllItemsByOwnerIdWithPastStateWithPaginationTest() {
         Booking booking1 = new Booking();
-        booking1.setItem(ItemMapper.makeItem(itemFromService));
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
         booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking1.setStart(LocalDateTime.now().minusSeconds(100));
         booking1.setEnd(LocalDateTime.now().minusSeconds(50));
         booking1.setStatus(BookingStatus.APPROVED);
         repository.save(booking1);
         Booking booking2 = new Booking();
-        booking2.setItem(ItemMapper.makeItem(itemFromService2));
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
         booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking2.setStart(LocalDateTime.now().minusSeconds(100));
         booking2.setEnd(LocalDateTime.now().minusSeconds(50));
@@ -410,14 +625,14 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingsForAllItemsByOwnerIdWithFutureStateWithPaginationTest() {
         Booking booking1 = new Booking();
-        booking1.setItem(ItemMapper.makeItem(itemFromService));
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
         booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking1.setStart(LocalDateTime.now().plusSeconds(100));
         booking1.setEnd(LocalDateTime.now().plusSeconds(120));
         booking1.setStatus(BookingStatus.APPROVED);
         repository.save(booking1);
         Booking booking2 = new Booking();
-        booking2.setItem(ItemMapper.makeItem(itemFromService2));
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
         booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking2.setStart(LocalDateTime.now().plusSeconds(100));
         booking2.setEnd(LocalDateTime.now().plusSeconds(120));
@@ -433,14 +648,14 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingsForAllItemsByOwnerIdWithRejectedStateWithPaginationTest() {
         Booking booking1 = new Booking();
-        booking1.setItem(ItemMapper.makeItem(itemFromService));
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
         booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking1.setStart(LocalDateTime.now().plusSeconds(100));
         booking1.setEnd(LocalDateTime.now().plusSeconds(120));
         booking1.setStatus(BookingStatus.REJECTED);
         repository.save(booking1);
         Booking booking2 = new Booking();
-        booking2.setItem(ItemMapper.makeItem(itemFromService2));
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
         booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking2.setStart(LocalDateTime.now().plusSeconds(100));
         booking2.setEnd(LocalDateTime.now().plusSeconds(120));
@@ -456,14 +671,14 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingsForAllItemsByOwnerIdWithWaitingStateWithPaginationTest() {
         Booking booking1 = new Booking();
-        booking1.setItem(ItemMapper.makeItem(itemFromService));
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
         booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking1.setStart(LocalDateTime.now().plusSeconds(100));
         booking1.setEnd(LocalDateTime.now().plusSeconds(120));
         booking1.setStatus(BookingStatus.WAITING);
         repository.save(booking1);
         Booking booking2 = new Booking();
-        booking2.setItem(ItemMapper.makeItem(itemFromService2));
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
         booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking2.setStart(LocalDateTime.now().plusSeconds(100));
         booking2.setEnd(LocalDateTime.now().plusSeconds(120));
@@ -479,14 +694,14 @@ public class BookingServiceImplIntegrationTest {
     @Test
     void getBookingsForAllItemsByOwnerIdWithoutStateWithPaginationTest() {
         Booking booking1 = new Booking();
-        booking1.setItem(ItemMapper.makeItem(itemFromService));
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
         booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking1.setStart(LocalDateTime.now().plusSeconds(100));
         booking1.setEnd(LocalDateTime.now().plusSeconds(120));
         booking1.setStatus(BookingStatus.WAITING);
         repository.save(booking1);
         Booking booking2 = new Booking();
-        booking2.setItem(ItemMapper.makeItem(itemFromService2));
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
         booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
         booking2.setStart(LocalDateTime.now().plusSeconds(100));
         booking2.setEnd(LocalDateTime.now().plusSeconds(120));
@@ -499,4 +714,200 @@ public class BookingServiceImplIntegrationTest {
 
         assertThat(bookingResponseDtos.size(), equalTo(1));
     }
+
+    @Test
+    void getBookingsByBookerIdAfterCursorTest() {
+        LocalDateTime start = LocalDateTime.now().plusSeconds(100).withNano(0);
+        Booking booking1 = new Booking();
+        booking1.setItem(em.find(Item.class, itemFromService.getId()));
+        booking1.setBooker(UserMapper.makeUser(userDtoSaved2));
+        booking1.setStart(start);
+        booking1.setEnd(start.plusSeconds(20));
+        booking1.setStatus(BookingStatus.WAITING);
+        booking1 = repository.save(booking1);
+        Booking booking2 = new Booking();
+        booking2.setItem(em.find(Item.class, itemFromService2.getId()));
+        booking2.setBooker(UserMapper.makeUser(userDtoSaved2));
+        booking2.setStart(start);
+        booking2.setEnd(start.plusSeconds(20));
+        booking2.setStatus(BookingStatus.WAITING);
+        booking2 = repository.save(booking2);
+        Booking booking3 = new Booking();
+        booking3.setItem(em.find(Item.class, itemFromService2.getId()));
+        booking3.setBooker(UserMapper.makeUser(userDtoSaved2));
+        booking3.setStart(start.minusSeconds(500));
+        booking3.setEnd(start.minusSeconds(400));
+        booking3.setStatus(BookingStatus.REJECTED);
+        booking3 = repository.save(booking3);
+
+        List<BookingResponseDto> firstPage = service.getBookingsByBookerId(userDtoSaved2.getId(), "ALL", 0, 1);
+        BookingResponseDto last = firstPage.get(firstPage.size() - 1);
+        List<BookingResponseDto> secondPage = service.getBookingsByBookerIdAfter(userDtoSaved2.getId(), "ALL",
+                start + "_" + booking2.getId(), 2);
+        List<BookingResponseDto> futurePage = service.getBookingsByBookerIdAfter(userDtoSaved2.getId(), "FUTURE",
+                start + "_" + booking2.getId(), 2);
+        List<BookingResponseDto> ownerPage = service.getBookingsForAllItemsByOwnerIdAfter(userDtoSaved1.getId(),
+                BookingState.REJECTED, start + "_" + booking2.getId(), 2);
+
+        assertThat(last.getStart(), equalTo(start));
+        assertThat(last.getId(), equalTo(booking2.getId()));
+        assertThat(secondPage.size(), equalTo(2));
+        assertThat(secondPage.get(0).getId(), equalTo(booking1.getId()));
+        assertThat(secondPage.get(1).getId(), equalTo(booking3.getId()));
+        assertThat(futurePage.size(), equalTo(1));
+        assertThat(futurePage.get(0).getId(), equalTo(booking1.getId()));
+        assertThat(ownerPage.size(), equalTo(1));
+        assertThat(ownerPage.get(0).getId(), equalTo(booking3.getId()));
+    }
+
+    @Test
+    void getBookingsByBookerIdWithWrongCursorTest() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.getBookingsByBookerIdAfter(userDtoSaved2.getId(), "ALL", "wrong", 2));
+
+        assertThat(e.getMessage(), equalTo("Unknown cursor: wrong"));
+    }
+
+    @Test
+    void getBookingsWithoutSizeTest() {
+        IllegalArgumentException offsetError = assertThrows(IllegalArgumentException.class,
+                () -> service.getBookingsByBookerId(userDtoSaved2.getId(), "ALL", 0, null));
+        IllegalArgumentException cursorError = assertThrows(IllegalArgumentException.class,
+                () -> service.getBookingsForAllItemsByOwnerIdAfter(userDtoSaved1.getId(), BookingState.ALL,
+                        LocalDateTime.now() + "_1", null));
+
+        assertThat(offsetError.getMessage(), equalTo("Parameter size must be positive"));
+        assertThat(cursorError.getMessage(), equalTo("Parameter size must be positive"));
+    }
+
+    @Test
+    void getBookingsWithEqualStartFromOffsetToCursorTest() {
+        LocalDateTime start = LocalDateTime.now().plusSeconds(100).withNano(0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Booking booking = new Booking();
+            booking.setItem(em.find(Item.class, itemFromService.getId()));
+            booking.setBooker(UserMapper.makeUser(userDtoSaved2));
+            booking.setStart(start);
+            booking.setEnd(start.plusSeconds(20));
+            booking.setStatus(BookingStatus.WAITING);
+            ids.add(repository.save(booking).getId());
+        }
+        ids.sort(Comparator.reverseOrder());
+
+        for (BookingState state : List.of(BookingState.ALL, BookingState.FUTURE, BookingState.WAITING)) {
+            List<BookingResponseDto> bookerPages = new ArrayList<>(service.getBookingsByBookerId(userDtoSaved2.getId(),
+                    state.name(), 0, 2));
+            List<BookingResponseDto> ownerPages = new ArrayList<>(service.getBookingsForAllItemsByOwnerId(
+                    userDtoSaved1.getId(), state, 0, 2));
+            for (int page = 0; page < 2; page++) {
+                BookingResponseDto bookerLast = bookerPages.get(bookerPages.size() - 1);
+                bookerPages.addAll(service.getBookingsByBookerIdAfter(userDtoSaved2.getId(), state.name(),
+                        bookerLast.getStart() + "_" + bookerLast.getId(), 2));
+                BookingResponseDto ownerLast = ownerPages.get(ownerPages.size() - 1);
+                ownerPages.addAll(service.getBookingsForAllItemsByOwnerIdAfter(userDtoSaved1.getId(), state,
+                        ownerLast.getStart() + "_" + ownerLast.getId(), 2));
+            }
+
+            assertThat(bookerPages.stream().map(BookingResponseDto::getId).collect(Collectors.toList()),
+                    equalTo(ids));
+            assertThat(ownerPages.stream().map(BookingResponseDto::getId).collect(Collectors.toList()),
+                    equalTo(ids));
+        }
+    }
+
+    @Test
+    void getBookingPagesInConstantNumberOfStatementsTest() {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        for (int i = 0; i < 100; i++) {
+            itemDto.setName("Name" + i);
+            ItemDto savedItem = itemService.saveNewItem(userDtoSaved1.getId(), itemDto);
+            Booking booking = new Booking();
+            booking.setItem(em.find(Item.class, savedItem.getId()));
+            booking.setBooker(UserMapper.makeUser(userDtoSaved2));
+            booking.setStart(LocalDateTime.now().plusSeconds(100 + i));
+            booking.setEnd(LocalDateTime.now().plusSeconds(200 + i));
+            booking.setStatus(BookingStatus.WAITING);
+            repository.save(booking);
+        }
+        em.flush();
+        em.clear();
+        for (String state : List.of("ALL", "FUTURE", "WAITING")) {
+            List<BookingResponseDto> bookerPage = assertMaxStatements(counter, 3,
+                    () -> service.getBookingsByBookerId(userDtoSaved2.getId(), state, 0, 100));
+
+            assertThat(bookerPage.size(), equalTo(100));
+            em.clear();
+
+            List<BookingResponseDto> ownerPage = assertMaxStatements(counter, 3,
+                    () -> service.getBookingsForAllItemsByOwnerId(userDtoSaved1.getId(), BookingState.valueOf(state),
+                            0, 100));
+
+            assertThat(ownerPage.size(), equalTo(100));
+            em.clear();
+        }
+    }
+
+    @Test
+    void saveNewBookingInConstantNumberOfStatementsTest() {
+        BookingRequestDto bookingRequestDto = new BookingRequestDto();
+        bookingRequestDto.setItemId(itemFromService.getId());
+        bookingRequestDto.setStart(LocalDateTime.now().plusSeconds(100));
+        bookingRequestDto.setEnd(LocalDateTime.now().plusSeconds(200));
+        em.flush();
+        em.clear();
+
+        BookingResponseDto saved = assertMaxStatements(counter, 5, () -> {
+            BookingResponseDto booking = service.saveNewBooking(userDtoSaved2.getId(), bookingRequestDto);
+            em.flush();
+            return booking;
+        });
+
+        assertThat(saved.getStatus(), equalTo(BookingStatus.WAITING));
+    }
+
+    @Test
+    void bookingConfirmationInConstantNumberOfStatementsTest() {
+        Booking booking = new Booking();
+        booking.setItem(em.find(Item.class, itemFromService.getId()));
+        booking.setBooker(UserMapper.makeUser(userDtoSaved2));
+        booking.setStart(LocalDateTime.now().plusSeconds(100));
+        booking.setEnd(LocalDateTime.now().plusSeconds(200));
+        booking.setStatus(BookingStatus.WAITING);
+        long bookingId = repository.save(booking).getId();
+        em.flush();
+        em.clear();
+
+        BookingResponseDto approved = assertMaxStatements(counter, 4, () -> {
+            BookingResponseDto confirmed = service.bookingConfirmation(userDtoSaved1.getId(), bookingId, true);
+            em.flush();
+            return confirmed;
+        });
+
+        assertThat(approved.getStatus(), equalTo(BookingStatus.APPROVED));
+    }
+
+    @Test
+    void getBookingByIdInOneStatementTest() {
+        Booking booking = new Booking();
+        booking.setItem(em.find(Item.class, itemFromService.getId()));
+        booking.setBooker(UserMapper.makeUser(userDtoSaved2));
+        booking.setStart(LocalDateTime.now().plusSeconds(100));
+        booking.setEnd(LocalDateTime.now().plusSeconds(200));
+        booking.setStatus(BookingStatus.WAITING);
+        long bookingId = repository.save(booking).getId();
+        em.flush();
+        em.clear();
+
+        BookingResponseDto byOwner = assertMaxStatements(counter, 1,
+                () -> service.getBookingById(userDtoSaved1.getId(), bookingId));
+        em.clear();
+        BookingResponseDto byBooker = assertMaxStatements(counter, 1,
+                () -> service.getBookingById(userDtoSaved2.getId(), bookingId));
+
+        assertThat(byOwner.getItem().getId(), equalTo(itemFromService.getId()));
+        assertThat(byBooker.getBooker().getId(), equalTo(userDtoSaved2.getId()));
+    }
 }
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.ItemSearchMode;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SchemaIndexVerifierTest {
+
+    private final DataSource dataSource;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final SchemaIndexVerifier verifier;
+
+    @Test
+    void expectedIndexesAreDeclaredByRepositoriesTest() {
+        Map<String, List<String>> expectedIndexes = verifier.getExpectedIndexes();
+
+        assertThat(expectedIndexes.keySet(), contains("users", "items", "bookings", "comments", "item_requests"));
+        assertThat(expectedIndexes.get("users"), equalTo(List.of()));
+        assertThat(expectedIndexes.get("items"), contains("ix_items_user_id", "ix_items_request_id"));
+        assertThat(expectedIndexes.get("bookings"), contains("ix_bookings_booker_start",
+                "ix_bookings_booker_status_start", "ix_bookings_item_start", "ix_bookings_item_end",
+                "ix_bookings_item_status_start", "ix_bookings_item_status_end"));
+        assertThat(expectedIndexes.get("comments"), contains("ix_comments_item_id"));
+        assertThat(expectedIndexes.get("item_requests"),
+                contains("ix_item_requests_user_created", "ix_item_requests_created"));
+    }
+
+    @Test
+    void schemaIndexesArePresentTest() throws SQLException {
+        verifier.verify();
+    }
+
+    @Test
+    void indexDroppedFromDatabaseFailsVerificationTest() {
+        jdbcTemplate.execute("DROP INDEX ix_bookings_item_status_start");
+        try {
+            IllegalStateException e = assertThrows(IllegalStateException.class, verifier::verify);
+
+            assertThat(e.getMessage(),
+                    equalTo("Missing database indexes: [ix_bookings_item_status_start on bookings]"));
+        } finally {
+            jdbcTemplate.execute("CREATE INDEX ix_bookings_item_status_start ON bookings (item_id, status, start_date)");
+        }
+    }
+
+    @Test
+    void fullTextIndexMissingFailsVerificationTest() {
+        SchemaIndexVerifier fullTextVerifier = new SchemaIndexVerifier(dataSource, ItemSearchMode.FULL_TEXT);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, fullTextVerifier::verify);
+
+        assertThat(e.getMessage(), equalTo("Missing database indexes: [ix_items_search on items]"));
+    }
+}
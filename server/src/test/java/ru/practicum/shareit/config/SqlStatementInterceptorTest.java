@@ -0,0 +1,101 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest(properties = "db.name=test")
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SqlStatementInterceptorTest {
+    private static final String METER = "shareit.sql.statements.per.request";
+
+    private final MockMvc mvc;
+
+    private final MeterRegistry meterRegistry;
+
+    private final UserService userService;
+
+    private final ItemRequestService itemRequestService;
+
+    private UserDto user;
+
+    private ItemRequestDto itemRequest;
+
+    @BeforeEach
+    void saveItemRequest() {
+        UserDto userDto = new UserDto();
+        userDto.setName("Name");
+        userDto.setEmail("sql-interceptor@mail.ru");
+        user = userService.saveNewUser(userDto);
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        itemRequestDto.setDescription("description");
+        itemRequest = itemRequestService.saveNewItemRequest(user.getId(), itemRequestDto);
+    }
+
+    @Test
+    void statementsPerRequestAreTaggedWithUriPatternTest() throws Exception {
+        long countBefore = summaryCount("GET", "/requests/{itemRequestId}");
+
+        mvc.perform(get("/requests/{itemRequestId}", itemRequest.getId())
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+
+        DistributionSummary summary = meterRegistry.get(METER)
+                .tag("method", "GET")
+                .tag("uri", "/requests/{itemRequestId}")
+                .summary();
+        assertThat(summary.count(), equalTo(countBefore + 1));
+        assertThat(summary.max(), greaterThan(0.0));
+        assertThat(meterRegistry.find(METER).tag("uri", "/requests/" + itemRequest.getId()).summaries(), empty());
+    }
+
+    @Test
+    void statementsOfFailedRequestAreRecordedTest() throws Exception {
+        long countBefore = summaryCount("GET", "/requests/{itemRequestId}");
+
+        mvc.perform(get("/requests/{itemRequestId}", itemRequest.getId() + 1000)
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isNotFound());
+
+        assertThat(summaryCount("GET", "/requests/{itemRequestId}"), equalTo(countBefore + 1));
+    }
+
+    @Test
+    void statementsAreCountedPerMethodTest() throws Exception {
+        long countBefore = summaryCount("GET", "/requests");
+
+        mvc.perform(get("/requests")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .param("from", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk());
+
+        assertThat(summaryCount("GET", "/requests"), equalTo(countBefore + 1));
+        assertThat(meterRegistry.find(METER).tag("method", "POST").tag("uri", "/requests").summaries(), empty());
+    }
+
+    private long summaryCount(String method, String uri) {
+        DistributionSummary summary = meterRegistry.find(METER).tag("method", method).tag("uri", uri).summary();
+        return summary != null ? summary.count() : 0;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class);
+
+    @Test
+    void platformThreadsAreKeptByDefaultTest() {
+        contextRunner.run(context -> {
+            assertThat(context.getStartupFailure(), nullValue());
+            assertThat(context.getBeansOfType(ExecutorService.class).isEmpty(), equalTo(true));
+            assertThat(context.getBeansOfType(TomcatProtocolHandlerCustomizer.class).isEmpty(), equalTo(true));
+        });
+    }
+
+    @Test
+    void virtualThreadsFallBackToPlatformThreadsBeforeJava21Test() {
+        assumeTrue(Runtime.version().feature() < 21);
+
+        contextRunner.withPropertyValues("shareit.threads.virtual=true").run(context -> {
+            assertThat(context.getStartupFailure(), nullValue());
+            assertThat(context.getBeansOfType(ExecutorService.class).isEmpty(), equalTo(true));
+            assertThat(context.getBeansOfType(TomcatProtocolHandlerCustomizer.class).isEmpty(), equalTo(true));
+            assertThat(context.containsBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME),
+                    equalTo(false));
+        });
+    }
+
+    @Test
+    void tasksRunOnVirtualThreadsFromJava21Test() {
+        assumeTrue(Runtime.version().feature() >= 21);
+
+        contextRunner.withPropertyValues("shareit.threads.virtual=true").run(context -> {
+            assertThat(context.getStartupFailure(), nullValue());
+            assertThat(context.getBeansOfType(TomcatProtocolHandlerCustomizer.class).size(), equalTo(1));
+            AsyncTaskExecutor executor = context.getBean(
+                    TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, AsyncTaskExecutor.class);
+            Object virtual = executor.submit(() -> Thread.class.getMethod("isVirtual")
+                    .invoke(Thread.currentThread())).get();
+            assertThat(virtual, equalTo(true));
+        });
+    }
+}
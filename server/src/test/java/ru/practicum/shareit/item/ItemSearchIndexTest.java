@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository repository;
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(repository, ItemSearchMode.INDEX);
+    }
+
+    @Test
+    void rebuildAndSearchTest() {
+        when(repository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                makeItem(1, 1, "Hammer", "Very good hammer", true),
+                makeItem(2, 1, "Drill", "Drill with a screwdriver bit", true),
+                makeItem(3, 2, "Screwdriver", "Very good screwdriver", true),
+                makeItem(4, 2, "Screwdriver", "Broken one", false)), PageRequest.of(0, 1000), 4));
+        index.rebuild();
+
+        List<Item> items = index.search("SCREWDRIVER", 0, 10);
+
+        assertThat(items.size(), equalTo(2));
+        assertThat(items.get(0).getId(), equalTo(3L));
+        assertThat(items.get(1).getId(), equalTo(2L));
+        assertThat(index.search("rewdri", 0, 10).size(), equalTo(2));
+        assertThat(index.search("screwdriver", 1, 1).get(0).getId(), equalTo(2L));
+        assertThat(index.search("saw", 0, 10).size(), equalTo(0));
+    }
+
+    @Test
+    void putAndRemoveByOwnerTest() {
+        index.put(makeItem(1, 1, "Hammer", "Very good hammer", true));
+        index.put(makeItem(2, 2, "Sledgehammer", "Heavy", true));
+
+        assertThat(index.search("hammer", 0, 10).size(), equalTo(2));
+
+        index.put(makeItem(1, 1, "Saw", "Sharp saw", true));
+
+        assertThat(index.search("hammer", 0, 10).size(), equalTo(1));
+        assertThat(index.search("saw", 0, 10).get(0).getId(), equalTo(1L));
+
+        index.removeByOwner(2);
+
+        assertThat(index.search("hammer", 0, 10).size(), equalTo(0));
+    }
+
+    @Test
+    void disabledIndexIgnoresUpdatesTest() {
+        ItemSearchIndex disabledIndex = new ItemSearchIndex(repository, ItemSearchMode.LIKE);
+        disabledIndex.put(makeItem(1, 1, "Hammer", "Very good hammer", true));
+
+        assertThat(disabledIndex.search("hammer", 0, 10).size(), equalTo(0));
+    }
+
+    private Item makeItem(long id, long userId, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setUserId(userId);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
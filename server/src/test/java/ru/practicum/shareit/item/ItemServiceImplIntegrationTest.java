@@ -4,13 +4,18 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.config.SqlStatementCounter;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentsDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForBookingDto;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.model.Comments;
 import ru.practicum.shareit.item.model.Item;
@@ -28,6 +33,9 @@ import java.util.List;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static ru.practicum.shareit.SqlStatementAssertions.assertMaxStatements;
 
 @Transactional
 @SpringBootTest(
@@ -46,6 +54,10 @@ public class ItemServiceImplIntegrationTest {
 
     private final BookingRepository bookingRepository;
 
+    private final SqlStatementCounter counter;
+
+    private final CacheManager cacheManager;
+
     @Test
     void saveNewItemTest() {
         UserDto userDtoNotSaved = new UserDto();
@@ -98,6 +110,29 @@ public class ItemServiceImplIntegrationTest {
         assertThat(item.getDescription(), equalTo(itemDto.getDescription()));
     }
 
+    @Test
+    void getItemForBookingIsCachedUntilUpdateTest() {
+        UserDto userDtoNotSaved = new UserDto();
+        userDtoNotSaved.setName("Name");
+        userDtoNotSaved.setEmail("e@mail.ru");
+        UserDto userDtoSaved = userService.saveNewUser(userDtoNotSaved);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Name");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        ItemDto itemDtoSaved = service.saveNewItem(userDtoSaved.getId(), itemDto);
+        ItemForBookingDto item = service.getItemForBooking(itemDtoSaved.getId());
+
+        assertThat(item.getUserId(), equalTo(userDtoSaved.getId()));
+        assertThat(cacheManager.getCache(CacheConfig.ITEMS).get(itemDtoSaved.getId()).get(), sameInstance(item));
+
+        itemDto.setName("NewName");
+        service.updateItem(userDtoSaved.getId(), itemDtoSaved.getId(), itemDto);
+
+        assertThat(cacheManager.getCache(CacheConfig.ITEMS).get(itemDtoSaved.getId()), nullValue());
+        assertThat(service.getItemForBooking(itemDtoSaved.getId()).getName(), equalTo("NewName"));
+    }
+
     @Test
     void updateWrongItemTest() {
         UserDto userDtoNotSaved = new UserDto();
@@ -196,6 +231,20 @@ public class ItemServiceImplIntegrationTest {
         booking2.setEnd(LocalDateTime.now().plusSeconds(900));
         booking2.setStatus(BookingStatus.APPROVED);
         bookingRepository.save(booking2);
+        Booking olderBooking = new Booking();
+        olderBooking.setBooker(UserMapper.makeUser(userDtoSaved2));
+        olderBooking.setItem(ItemMapper.makeItem(itemDtoSaved));
+        olderBooking.setStart(LocalDateTime.now().minusSeconds(300));
+        olderBooking.setEnd(LocalDateTime.now().minusSeconds(200));
+        olderBooking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(olderBooking);
+        Booking laterBooking = new Booking();
+        laterBooking.setBooker(UserMapper.makeUser(userDtoSaved2));
+        laterBooking.setItem(ItemMapper.makeItem(itemDtoSaved));
+        laterBooking.setStart(LocalDateTime.now().plusSeconds(1000));
+        laterBooking.setEnd(LocalDateTime.now().plusSeconds(1100));
+        laterBooking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(laterBooking);
 
 
         ItemDto itemFromService = service.getItemById(userDtoSaved1.getId(), itemDtoSaved.getId());
@@ -209,6 +258,8 @@ public class ItemServiceImplIntegrationTest {
         assertThat(item.getId(), notNullValue());
         assertThat(item.getName(), equalTo(itemFromService.getName()));
         assertThat(item.getDescription(), equalTo(itemFromService.getDescription()));
+        assertThat(itemFromService.getLastBooking().getId(), equalTo(booking1.getId()));
+        assertThat(itemFromService.getNextBooking().getId(), equalTo(booking2.getId()));
     }
 
     @Test
@@ -259,6 +310,63 @@ public class ItemServiceImplIntegrationTest {
         assertThat(itemDtos.size(), equalTo(2));
     }
 
+    @Test
+    void getItemByUserIdWithBookingsAndCommentsTest() {
+        UserDto userDtoNotSaved = new UserDto();
+        userDtoNotSaved.setName("Name1");
+        userDtoNotSaved.setEmail("e1@mail.ru");
+        UserDto userDtoSaved1 = userService.saveNewUser(userDtoNotSaved);
+        userDtoNotSaved.setName("Name2");
+        userDtoNotSaved.setEmail("e2@mail.ru");
+        UserDto userDtoSaved2 = userService.saveNewUser(userDtoNotSaved);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Name");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        ItemDto itemDtoSaved = service.saveNewItem(userDtoSaved1.getId(), itemDto);
+
+        Booking oldBooking = new Booking();
+        oldBooking.setBooker(UserMapper.makeUser(userDtoSaved2));
+        oldBooking.setItem(ItemMapper.makeItem(itemDtoSaved));
+        oldBooking.setStart(LocalDateTime.now().minusSeconds(300));
+        oldBooking.setEnd(LocalDateTime.now().minusSeconds(200));
+        oldBooking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(oldBooking);
+        Booking lastBooking = new Booking();
+        lastBooking.setBooker(UserMapper.makeUser(userDtoSaved2));
+        lastBooking.setItem(ItemMapper.makeItem(itemDtoSaved));
+        lastBooking.setStart(LocalDateTime.now().minusSeconds(100));
+        lastBooking.setEnd(LocalDateTime.now().minusSeconds(90));
+        lastBooking.setStatus(BookingStatus.APPROVED);
+        lastBooking = bookingRepository.save(lastBooking);
+        Booking nextBooking = new Booking();
+        nextBooking.setBooker(UserMapper.makeUser(userDtoSaved2));
+        nextBooking.setItem(ItemMapper.makeItem(itemDtoSaved));
+        nextBooking.setStart(LocalDateTime.now().plusSeconds(100));
+        nextBooking.setEnd(LocalDateTime.now().plusSeconds(200));
+        nextBooking.setStatus(BookingStatus.APPROVED);
+        nextBooking = bookingRepository.save(nextBooking);
+        Booking waitingBooking = new Booking();
+        waitingBooking.setBooker(UserMapper.makeUser(userDtoSaved2));
+        waitingBooking.setItem(ItemMapper.makeItem(itemDtoSaved));
+        waitingBooking.setStart(LocalDateTime.now().plusSeconds(50));
+        waitingBooking.setEnd(LocalDateTime.now().plusSeconds(60));
+        waitingBooking.setStatus(BookingStatus.WAITING);
+        bookingRepository.save(waitingBooking);
+
+        CommentsDto commentsDto = new CommentsDto();
+        commentsDto.setText("good");
+        service.saveNewComment(userDtoSaved2.getId(), itemDtoSaved.getId(), commentsDto);
+
+        List<ItemDto> itemDtos = service.getItemByUserId(userDtoSaved1.getId(), 0, 5);
+
+        assertThat(itemDtos.size(), equalTo(1));
+        assertThat(itemDtos.get(0).getLastBooking().getId(), equalTo(lastBooking.getId()));
+        assertThat(itemDtos.get(0).getNextBooking().getId(), equalTo(nextBooking.getId()));
+        assertThat(itemDtos.get(0).getComments().size(), equalTo(1));
+        assertThat(itemDtos.get(0).getComments().get(0).getText(), equalTo(commentsDto.getText()));
+    }
+
     @Test
     void getItemByWrongIdTest() {
         try {
@@ -375,6 +483,51 @@ public class ItemServiceImplIntegrationTest {
         assertThat(itemDtos2.size(), equalTo(1));
     }
 
+    @Test
+    void searchSkipsUnavailableItems() {
+        UserDto userDtoNotSaved = new UserDto();
+        userDtoNotSaved.setName("Name");
+        userDtoNotSaved.setEmail("e@mail.ru");
+        UserDto userDtoSaved = userService.saveNewUser(userDtoNotSaved);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Screwdriver");
+        itemDto.setDescription("Broken one");
+        itemDto.setAvailable(false);
+        service.saveNewItem(userDtoSaved.getId(), itemDto);
+        itemDto.setName("Drill");
+        itemDto.setDescription("Drill with a SCREWDRIVER bit");
+        itemDto.setAvailable(true);
+        ItemDto availableItem = service.saveNewItem(userDtoSaved.getId(), itemDto);
+
+        List<ItemDto> itemDtos = service.search("screwdriver", 0, 1);
+
+        assertThat(itemDtos.size(), equalTo(1));
+        assertThat(itemDtos.get(0).getId(), equalTo(availableItem.getId()));
+    }
+
+    @Test
+    void searchTreatsWildcardsAsTextTest() {
+        UserDto userDtoNotSaved = new UserDto();
+        userDtoNotSaved.setName("Name");
+        userDtoNotSaved.setEmail("e@mail.ru");
+        UserDto userDtoSaved = userService.saveNewUser(userDtoNotSaved);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Drill");
+        itemDto.setDescription("Cordless drill");
+        itemDto.setAvailable(true);
+        service.saveNewItem(userDtoSaved.getId(), itemDto);
+        itemDto.setName("Saw_blade");
+        itemDto.setDescription("100% steel \\ sharp");
+        ItemDto sawBlade = service.saveNewItem(userDtoSaved.getId(), itemDto);
+
+        assertThat(service.search("ill", 0, 5).size(), equalTo(1));
+        assertThat(service.search("%", 0, 5).size(), equalTo(1));
+        assertThat(service.search("dr_ll", 0, 5).size(), equalTo(0));
+        assertThat(service.search("w_b", 0, 5).get(0).getId(), equalTo(sawBlade.getId()));
+        assertThat(service.search("0% s", 0, 5).get(0).getId(), equalTo(sawBlade.getId()));
+        assertThat(service.search("\\ sharp", 0, 5).get(0).getId(), equalTo(sawBlade.getId()));
+    }
+
     @Test
     void saveNewCommentTest() {
         UserDto userDtoNotSaved1 = new UserDto();
@@ -475,4 +628,243 @@ public class ItemServiceImplIntegrationTest {
 
         assertThat(itemDtos.size(), equalTo(2));
     }
+
+    @Test
+    void getAvailabilityTest() {
+        UserDto userDtoNotSaved = new UserDto();
+        userDtoNotSaved.setName("Name1");
+        userDtoNotSaved.setEmail("e1@mail.ru");
+        UserDto userDtoSaved1 = userService.saveNewUser(userDtoNotSaved);
+        userDtoNotSaved.setName("Name2");
+        userDtoNotSaved.setEmail("e2@mail.ru");
+        UserDto userDtoSaved2 = userService.saveNewUser(userDtoNotSaved);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Name");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        ItemDto itemDtoSaved = service.saveNewItem(userDtoSaved1.getId(), itemDto);
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        Booking approvedBooking = new Booking();
+        approvedBooking.setBooker(UserMapper.makeUser(userDtoSaved2));
+        approvedBooking.setItem(em.find(Item.class, itemDtoSaved.getId()));
+        approvedBooking.setStart(from.plusDays(2));
+        approvedBooking.setEnd(from.plusDays(4));
+        approvedBooking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(approvedBooking);
+        Booking waitingBooking = new Booking();
+        waitingBooking.setBooker(UserMapper.makeUser(userDtoSaved2));
+        waitingBooking.setItem(em.find(Item.class, itemDtoSaved.getId()));
+        waitingBooking.setStart(from.plusDays(5));
+        waitingBooking.setEnd(from.plusDays(6));
+        waitingBooking.setStatus(BookingStatus.WAITING);
+        bookingRepository.save(waitingBooking);
+        Booking lastBooking = new Booking();
+        lastBooking.setBooker(UserMapper.makeUser(userDtoSaved2));
+        lastBooking.setItem(em.find(Item.class, itemDtoSaved.getId()));
+        lastBooking.setStart(from.plusDays(8));
+        lastBooking.setEnd(from.plusDays(12));
+        lastBooking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(lastBooking);
+
+        List<FreeSlotDto> freeSlots = service.getAvailability(userDtoSaved2.getId(), itemDtoSaved.getId(), from, to);
+
+        assertThat(freeSlots, equalTo(List.of(
+                new FreeSlotDto(from, from.plusDays(2)),
+                new FreeSlotDto(from.plusDays(4), from.plusDays(8)))));
+    }
+
+    @Test
+    void getAvailabilityInConstantNumberOfStatementsTest() {
+        UserDto userDtoNotSaved = new UserDto();
+        userDtoNotSaved.setName("Owner");
+        userDtoNotSaved.setEmail("owner@mail.ru");
+        UserDto owner = userService.saveNewUser(userDtoNotSaved);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Name");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        ItemDto itemDtoSaved = service.saveNewItem(owner.getId(), itemDto);
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        for (int i = 0; i < 10; i++) {
+            userDtoNotSaved.setName("Booker" + i);
+            userDtoNotSaved.setEmail("booker" + i + "@mail.ru");
+            Booking booking = new Booking();
+            booking.setBooker(UserMapper.makeUser(userService.saveNewUser(userDtoNotSaved)));
+            booking.setItem(em.find(Item.class, itemDtoSaved.getId()));
+            booking.setStart(from.plusDays(2L * i));
+            booking.setEnd(from.plusDays(2L * i + 1));
+            booking.setStatus(BookingStatus.APPROVED);
+            bookingRepository.save(booking);
+        }
+        em.flush();
+        em.clear();
+
+        List<FreeSlotDto> freeSlots = assertMaxStatements(counter, 3,
+                () -> service.getAvailability(owner.getId(), itemDtoSaved.getId(), from, from.plusDays(20)));
+
+        assertThat(freeSlots.size(), equalTo(10));
+        assertThat(freeSlots.get(0), equalTo(new FreeSlotDto(from.plusDays(1), from.plusDays(2))));
+    }
+
+    @Test
+    void getItemPageInConstantNumberOfStatementsTest() {
+        UserDto userDtoNotSaved = new UserDto();
+        userDtoNotSaved.setName("Name1");
+        userDtoNotSaved.setEmail("e1@mail.ru");
+        UserDto owner = userService.saveNewUser(userDtoNotSaved);
+        userDtoNotSaved.setName("Name2");
+        userDtoNotSaved.setEmail("e2@mail.ru");
+        UserDto booker = userService.saveNewUser(userDtoNotSaved);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        for (int i = 0; i < 20; i++) {
+            itemDto.setName("Name" + i);
+            ItemDto savedItem = service.saveNewItem(owner.getId(), itemDto);
+            for (int days : List.of(-2, 2)) {
+                Booking booking = new Booking();
+                booking.setBooker(UserMapper.makeUser(booker));
+                booking.setItem(ItemMapper.makeItem(savedItem));
+                booking.setStart(LocalDateTime.now().plusDays(days));
+                booking.setEnd(LocalDateTime.now().plusDays(days + 1));
+                booking.setStatus(BookingStatus.APPROVED);
+                bookingRepository.save(booking);
+            }
+            Comments comment = new Comments();
+            comment.setText("good");
+            comment.setItemId(savedItem.getId());
+            comment.setUserId(booker.getId());
+            comment.setAuthorName(booker.getName());
+            comment.setCreated(LocalDateTime.now());
+            em.persist(comment);
+        }
+        em.flush();
+        em.clear();
+
+        List<ItemDto> itemDtos = assertMaxStatements(counter, 6,
+                () -> service.getItemByUserId(owner.getId(), 0, 50));
+
+        assertThat(itemDtos.size(), equalTo(20));
+        assertThat(itemDtos.get(19).getLastBooking(), notNullValue());
+        assertThat(itemDtos.get(19).getNextBooking(), notNullValue());
+        assertThat(itemDtos.get(19).getComments().size(), equalTo(1));
+    }
+
+    @Test
+    void saveAndUpdateItemInConstantNumberOfStatementsTest() {
+        UserDto userDtoNotSaved = new UserDto();
+        userDtoNotSaved.setName("Name");
+        userDtoNotSaved.setEmail("e@mail.ru");
+        UserDto owner = userService.saveNewUser(userDtoNotSaved);
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        itemRequestDto.setDescription("Need a drill");
+        ItemRequestDto itemRequest = itemRequestService.saveNewItemRequest(owner.getId(), itemRequestDto);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Drill");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        itemDto.setRequestId(itemRequest.getId());
+        em.flush();
+        em.clear();
+
+        ItemDto savedItem = assertMaxStatements(counter, 3, () -> {
+            ItemDto item = service.saveNewItem(owner.getId(), itemDto);
+            em.flush();
+            return item;
+        });
+        em.clear();
+        itemDto.setName("New drill");
+        ItemDto updatedItem = assertMaxStatements(counter, 3, () -> {
+            ItemDto item = service.updateItem(owner.getId(), savedItem.getId(), itemDto);
+            em.flush();
+            return item;
+        });
+
+        assertThat(updatedItem.getName(), equalTo("New drill"));
+    }
+
+    @Test
+    void getItemByIdInConstantNumberOfStatementsTest() {
+        UserDto userDtoNotSaved = new UserDto();
+        userDtoNotSaved.setName("Name1");
+        userDtoNotSaved.setEmail("e1@mail.ru");
+        UserDto owner = userService.saveNewUser(userDtoNotSaved);
+        userDtoNotSaved.setName("Name2");
+        userDtoNotSaved.setEmail("e2@mail.ru");
+        UserDto booker = userService.saveNewUser(userDtoNotSaved);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Name");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        ItemDto savedItem = service.saveNewItem(owner.getId(), itemDto);
+        for (int days : List.of(-4, -2, 2, 4)) {
+            Booking booking = new Booking();
+            booking.setBooker(UserMapper.makeUser(booker));
+            booking.setItem(ItemMapper.makeItem(savedItem));
+            booking.setStart(LocalDateTime.now().plusDays(days));
+            booking.setEnd(LocalDateTime.now().plusDays(days + 1));
+            booking.setStatus(BookingStatus.APPROVED);
+            bookingRepository.save(booking);
+            Comments comment = new Comments();
+            comment.setText("good");
+            comment.setItemId(savedItem.getId());
+            comment.setUserId(booker.getId());
+            comment.setAuthorName(booker.getName());
+            comment.setCreated(LocalDateTime.now());
+            em.persist(comment);
+        }
+        em.flush();
+        em.clear();
+
+        ItemDto forOwner = assertMaxStatements(counter, 4, () -> service.getItemById(owner.getId(), savedItem.getId()));
+        em.clear();
+        ItemDto forBooker = assertMaxStatements(counter, 2,
+                () -> service.getItemById(booker.getId(), savedItem.getId()));
+
+        assertThat(forOwner.getLastBooking(), notNullValue());
+        assertThat(forOwner.getNextBooking(), notNullValue());
+        assertThat(forOwner.getComments().size(), equalTo(4));
+        assertThat(forBooker.getComments().size(), equalTo(4));
+    }
+
+    @Test
+    void saveNewCommentInConstantNumberOfStatementsTest() {
+        UserDto userDtoNotSaved = new UserDto();
+        userDtoNotSaved.setName("Name1");
+        userDtoNotSaved.setEmail("e1@mail.ru");
+        UserDto owner = userService.saveNewUser(userDtoNotSaved);
+        userDtoNotSaved.setName("Name2");
+        userDtoNotSaved.setEmail("e2@mail.ru");
+        UserDto booker = userService.saveNewUser(userDtoNotSaved);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        ItemDto commentedItem = null;
+        for (int i = 0; i < 10; i++) {
+            itemDto.setName("Name" + i);
+            commentedItem = service.saveNewItem(owner.getId(), itemDto);
+            Booking booking = new Booking();
+            booking.setBooker(UserMapper.makeUser(booker));
+            booking.setItem(ItemMapper.makeItem(commentedItem));
+            booking.setStart(LocalDateTime.now().minusDays(2));
+            booking.setEnd(LocalDateTime.now().minusDays(1));
+            booking.setStatus(BookingStatus.APPROVED);
+            bookingRepository.save(booking);
+        }
+        long itemId = commentedItem.getId();
+        CommentsDto commentsDto = new CommentsDto();
+        commentsDto.setText("good");
+        em.flush();
+        em.clear();
+
+        CommentsDto savedComment = assertMaxStatements(counter, 4, () -> {
+            CommentsDto comment = service.saveNewComment(booker.getId(), itemId, commentsDto);
+            em.flush();
+            return comment;
+        });
+
+        assertThat(savedComment.getAuthorName(), equalTo(booker.getName()));
+    }
 }
@@ -5,19 +5,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.SqlStatementCounter;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static ru.practicum.shareit.SqlStatementAssertions.assertMaxStatements;
 
 @Transactional
 @SpringBootTest(
@@ -28,10 +36,18 @@ public class ItemRequestServiceImplIntegrationTest {
 
     private final UserRepository userRepository;
 
+    private final ItemRepository itemRepository;
+
     private final ItemRequestService service;
 
+    private final ItemService itemService;
+
+    private final UserService userService;
+
     private final EntityManager em;
 
+    private final SqlStatementCounter counter;
+
     @Test
     void saveNewItemRequestTest() {
         User user = new User();
@@ -116,6 +132,90 @@ public class ItemRequestServiceImplIntegrationTest {
         assertThat(itemRequestDtoFromServiceListForUser2.size(), equalTo(1));
     }
 
+    @Test
+    void getItemRequestsWithItemsTest() {
+        User user1 = new User();
+        user1.setName("Name1");
+        user1.setEmail("e1@mail.ru");
+        User savedUser1 = userRepository.save(user1);
+
+        User user2 = new User();
+        user2.setName("Name2");
+        user2.setEmail("e2@mail.ru");
+        User savedUser2 = userRepository.save(user2);
+
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        itemRequestDto.setDescription("description1");
+        ItemRequestDto itemRequestDtoSaved1 = service.saveNewItemRequest(savedUser1.getId(), itemRequestDto);
+        itemRequestDto.setDescription("description2");
+        ItemRequestDto itemRequestDtoSaved2 = service.saveNewItemRequest(savedUser1.getId(), itemRequestDto);
+
+        Item item1 = new Item();
+        item1.setName("Name1");
+        item1.setDescription("Description1");
+        item1.setAvailable(true);
+        item1.setUserId(savedUser2.getId());
+        item1.setRequestId(itemRequestDtoSaved1.getId());
+        itemRepository.save(item1);
+        Item item2 = new Item();
+        item2.setName("Name2");
+        item2.setDescription("Description2");
+        item2.setAvailable(true);
+        item2.setUserId(savedUser2.getId());
+        item2.setRequestId(itemRequestDtoSaved1.getId());
+        itemRepository.save(item2);
+
+        List<ItemRequestDto> itemRequestsByAuthor = service.getItemRequestByAuthor(savedUser1.getId(), 0, 5);
+        List<ItemRequestDto> itemRequests = service.getItemRequests(savedUser2.getId(), 0, 5);
+
+        assertThat(itemRequestsByAuthor.size(), equalTo(2));
+        assertThat(itemRequestsByAuthor.get(0).getItems().size(), equalTo(2));
+        assertThat(itemRequestsByAuthor.get(1).getItems().size(), equalTo(0));
+        assertThat(itemRequests.size(), equalTo(2));
+        assertThat(itemRequests.get(0).getId(), equalTo(itemRequestDtoSaved1.getId()));
+        assertThat(itemRequests.get(0).getItems().size(), equalTo(2));
+        assertThat(itemRequests.get(1).getId(), equalTo(itemRequestDtoSaved2.getId()));
+        assertThat(itemRequests.get(1).getItems().size(), equalTo(0));
+    }
+
+    @Test
+    void getItemRequestPageInConstantNumberOfStatementsTest() {
+        User user1 = new User();
+        user1.setName("Name1");
+        user1.setEmail("e1@mail.ru");
+        User savedUser1 = userRepository.save(user1);
+
+        User user2 = new User();
+        user2.setName("Name2");
+        user2.setEmail("e2@mail.ru");
+        User savedUser2 = userRepository.save(user2);
+
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        for (int i = 0; i < 20; i++) {
+            itemRequestDto.setDescription("description" + i);
+            ItemRequestDto itemRequestDtoSaved = service.saveNewItemRequest(savedUser1.getId(), itemRequestDto);
+            Item item = new Item();
+            item.setName("Name" + i);
+            item.setDescription("Description" + i);
+            item.setAvailable(true);
+            item.setUserId(savedUser2.getId());
+            item.setRequestId(itemRequestDtoSaved.getId());
+            itemRepository.save(item);
+        }
+        em.flush();
+        em.clear();
+
+        List<ItemRequestDto> itemRequestsByAuthor = assertMaxStatements(counter, 4,
+                () -> service.getItemRequestByAuthor(savedUser1.getId(), 0, 50));
+        List<ItemRequestDto> itemRequests = assertMaxStatements(counter, 4,
+                () -> service.getItemRequests(savedUser2.getId(), 0, 50));
+
+        assertThat(itemRequestsByAuthor.size(), equalTo(20));
+        assertThat(itemRequestsByAuthor.get(19).getItems().size(), equalTo(1));
+        assertThat(itemRequests.size(), equalTo(20));
+        assertThat(itemRequests.get(19).getItems().size(), equalTo(1));
+    }
+
     @Test
     void findAllTest() {
         User user = new User();
@@ -152,4 +252,108 @@ public class ItemRequestServiceImplIntegrationTest {
 
         assertThat(itemRequestDtoToService.getDescription(), equalTo(itemRequestDtoFromService.getDescription()));
     }
+
+    @Test
+    void getItemRequestETagChangesWhenItemIsAddedTest() {
+        User user1 = new User();
+        user1.setName("Name1");
+        user1.setEmail("e1@mail.ru");
+        User savedUser1 = userRepository.save(user1);
+
+        User user2 = new User();
+        user2.setName("Name2");
+        user2.setEmail("e2@mail.ru");
+        User savedUser2 = userRepository.save(user2);
+
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        itemRequestDto.setDescription("description");
+        ItemRequestDto itemRequestDtoSaved = service.saveNewItemRequest(savedUser1.getId(), itemRequestDto);
+        String eTagBefore = service.getItemRequestETag(savedUser1.getId(), itemRequestDtoSaved.getId());
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Name");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        itemDto.setRequestId(itemRequestDtoSaved.getId());
+        itemService.saveNewItem(savedUser2.getId(), itemDto);
+        String eTagAfter = service.getItemRequestETag(savedUser1.getId(), itemRequestDtoSaved.getId());
+
+        assertThat(eTagBefore, notNullValue());
+        assertThat(eTagAfter, not(equalTo(eTagBefore)));
+    }
+
+    @Test
+    void getItemRequestETagChangesWhenAnsweringUserIsDeletedTest() {
+        User user1 = new User();
+        user1.setName("Name1");
+        user1.setEmail("e1@mail.ru");
+        User savedUser1 = userRepository.save(user1);
+
+        User user2 = new User();
+        user2.setName("Name2");
+        user2.setEmail("e2@mail.ru");
+        User savedUser2 = userRepository.save(user2);
+
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        itemRequestDto.setDescription("description");
+        ItemRequestDto itemRequestDtoSaved = service.saveNewItemRequest(savedUser1.getId(), itemRequestDto);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Name");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        itemDto.setRequestId(itemRequestDtoSaved.getId());
+        itemService.saveNewItem(savedUser2.getId(), itemDto);
+        em.flush();
+        em.clear();
+        String eTagBefore = service.getItemRequestETag(savedUser1.getId(), itemRequestDtoSaved.getId());
+
+        userService.deleteUser(savedUser2.getId());
+        em.flush();
+        em.clear();
+        String eTagAfter = service.getItemRequestETag(savedUser1.getId(), itemRequestDtoSaved.getId());
+
+        assertThat(eTagAfter, not(equalTo(eTagBefore)));
+        assertThat(service.getItemRequestById(savedUser1.getId(), itemRequestDtoSaved.getId()).getItems(), empty());
+    }
+
+    @Test
+    void saveAndGetItemRequestInConstantNumberOfStatementsTest() {
+        User user1 = new User();
+        user1.setName("Name1");
+        user1.setEmail("e1@mail.ru");
+        User savedUser1 = userRepository.save(user1);
+
+        User user2 = new User();
+        user2.setName("Name2");
+        user2.setEmail("e2@mail.ru");
+        User savedUser2 = userRepository.save(user2);
+
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        itemRequestDto.setDescription("description");
+        em.flush();
+        em.clear();
+
+        ItemRequestDto savedItemRequest = assertMaxStatements(counter, 3, () -> {
+            ItemRequestDto itemRequest = service.saveNewItemRequest(savedUser1.getId(), itemRequestDto);
+            em.flush();
+            return itemRequest;
+        });
+        for (int i = 0; i < 5; i++) {
+            Item item = new Item();
+            item.setName("Name" + i);
+            item.setDescription("Description" + i);
+            item.setAvailable(true);
+            item.setUserId(savedUser2.getId());
+            item.setRequestId(savedItemRequest.getId());
+            itemRepository.save(item);
+        }
+        em.flush();
+        em.clear();
+
+        ItemRequestDto itemRequest = assertMaxStatements(counter, 3,
+                () -> service.getItemRequestById(savedUser2.getId(), savedItemRequest.getId()));
+
+        assertThat(itemRequest.getItems().size(), equalTo(5));
+    }
 }
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest(properties = {"db.name=test", "shareit.tracing.exporter=memory"})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class TracingFilterTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private static final String CALLER_SPAN_ID = "00f067aa0ba902b7";
+
+    private final MockMvc mvc;
+
+    private final InMemorySpanExporter exporter;
+
+    private final UserService userService;
+
+    private UserDto user;
+
+    @BeforeEach
+    void saveUser() {
+        UserDto userDto = new UserDto();
+        userDto.setName("Name");
+        userDto.setEmail("tracing-filter@mail.ru");
+        user = userService.saveNewUser(userDto);
+        exporter.clear();
+    }
+
+    @Test
+    void requestSpanIsChildOfCallerSpanTest() throws Exception {
+        mvc.perform(get("/requests")
+                        .header(Tracer.TRACE_PARENT, "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .param("from", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk());
+
+        Span serverSpan = serverSpan();
+        List<Span> children = exporter.getSpans().stream()
+                .filter(span -> serverSpan.getSpanId().equals(span.getParentId()))
+                .collect(Collectors.toList());
+        assertThat(serverSpan.getTraceId(), equalTo(TRACE_ID));
+        assertThat(serverSpan.getParentId(), equalTo(CALLER_SPAN_ID));
+        assertThat(serverSpan.getName(), equalTo("GET /requests"));
+        assertThat(serverSpan.getAttributes().get("http.route"), equalTo("/requests"));
+        assertThat(serverSpan.getAttributes().get("http.status_code"), equalTo(200));
+        assertThat(children, hasSize(1));
+        assertThat(children.get(0).getName(), equalTo("ItemRequestServiceImpl.getItemRequestByAuthor"));
+        assertThat(exporter.getSpans().stream().map(Span::getTraceId).distinct().collect(Collectors.toList()),
+                equalTo(List.of(TRACE_ID)));
+    }
+
+    @Test
+    void requestSpanIsNamedAfterRouteTest() throws Exception {
+        mvc.perform(get("/users/{userId}", user.getId() + 1000)
+                        .header(Tracer.TRACE_PARENT, "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01"))
+                .andExpect(status().isNotFound());
+
+        Span serverSpan = serverSpan();
+        assertThat(serverSpan.getName(), equalTo("GET /users/{userId}"));
+        assertThat(serverSpan.getAttributes().get("http.status_code"), equalTo(404));
+    }
+
+    @Test
+    void requestWithoutTraceParentStartsNewTraceTest() throws Exception {
+        mvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk());
+
+        Span serverSpan = serverSpan();
+        assertThat(serverSpan.getTraceId(), notNullValue());
+        assertThat(serverSpan.getParentId(), nullValue());
+    }
+
+    @Test
+    void notSampledRequestIsNotExportedTest() throws Exception {
+        mvc.perform(get("/users/{userId}", user.getId())
+                        .header(Tracer.TRACE_PARENT, "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-00"))
+                .andExpect(status().isOk());
+
+        assertThat(exporter.getSpans(), empty());
+    }
+
+    private Span serverSpan() {
+        List<Span> serverSpans = exporter.getSpans().stream()
+                .filter(span -> span.getKind() == SpanKind.SERVER)
+                .collect(Collectors.toList());
+        assertThat(serverSpans, hasSize(1));
+        return serverSpans.get(0);
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserServiceImpl;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+
+@Transactional
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.tracing.exporter=memory"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class TracingIntegrationTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private static final String CALLER_SPAN_ID = "00f067aa0ba902b7";
+
+    private final EntityManager em;
+
+    private final CurrentSpanTracer tracer;
+
+    private final InMemorySpanExporter exporter;
+
+    private final ItemServiceImpl itemService;
+
+    private final UserServiceImpl userService;
+
+    private UserDto userDtoSaved;
+
+    @BeforeEach
+    void saveUserAndItem() {
+        UserDto userDtoNotSaved = new UserDto();
+        userDtoNotSaved.setName("Name");
+        userDtoNotSaved.setEmail("e@mail.ru");
+        userDtoSaved = userService.saveNewUser(userDtoNotSaved);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Name");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        itemService.saveNewItem(userDtoSaved.getId(), itemDto);
+        em.flush();
+        em.clear();
+        exporter.clear();
+    }
+
+    @Test
+    void serviceAndJdbcSpansJoinTheCallerTraceTest() {
+        Span serverSpan = tracer.startServerSpan("00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01", "GET /items");
+        itemService.getItemByUserId(userDtoSaved.getId(), 0, 10);
+        tracer.end(serverSpan);
+
+        List<Span> spans = exporter.getSpans();
+        Span exportedServerSpan = spans.get(spans.size() - 1);
+        Span serviceSpan = spans.stream()
+                .filter(span -> span.getName().equals("ItemServiceImpl.getItemByUserId"))
+                .findFirst()
+                .orElseThrow();
+        List<Span> jdbcSpans = spans.stream()
+                .filter(span -> span.getName().startsWith("jdbc "))
+                .collect(Collectors.toList());
+
+        assertThat(exportedServerSpan.getSpanId(), equalTo(serverSpan.getSpanId()));
+        assertThat(exportedServerSpan.getParentId(), equalTo(CALLER_SPAN_ID));
+        assertThat(serverSpan.toTraceParent(), equalTo("00-" + TRACE_ID + "-" + serverSpan.getSpanId() + "-01"));
+        assertThat(spans.stream().map(Span::getTraceId).distinct().collect(Collectors.toList()),
+                equalTo(List.of(TRACE_ID)));
+        assertThat(serviceSpan.getParentId(), equalTo(serverSpan.getSpanId()));
+        assertThat(jdbcSpans, not(empty()));
+        assertThat(jdbcSpans.get(0).getName(), equalTo("jdbc select"));
+        assertThat((String) jdbcSpans.get(0).getAttributes().get("db.statement"), startsWith("select"));
+        assertThat(jdbcSpans.stream().map(Span::getParentId).collect(Collectors.toList()),
+                hasItem(serviceSpan.getSpanId()));
+    }
+
+    @Test
+    void notSampledTraceIsNotExportedTest() {
+        Span serverSpan = tracer.startServerSpan("00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-00", "GET /items");
+        itemService.getItemByUserId(userDtoSaved.getId(), 0, 10);
+        tracer.end(serverSpan);
+
+        assertThat(exporter.getSpans(), empty());
+        assertThat(serverSpan.toTraceParent(), equalTo("00-" + TRACE_ID + "-" + serverSpan.getSpanId() + "-00"));
+    }
+
+    @Test
+    void invalidTraceParentStartsNewTraceTest() {
+        Span serverSpan = tracer.startServerSpan("01-" + TRACE_ID + "-zz-01", "GET /items");
+        tracer.end(serverSpan);
+
+        assertThat(serverSpan.getTraceId(), not(equalTo(TRACE_ID)));
+        assertThat(serverSpan.getTraceId().length(), equalTo(32));
+        assertThat(serverSpan.getParentId(), nullValue());
+        assertThat(tracer.startSpan("outside a request", SpanKind.INTERNAL), nullValue());
+    }
+
+    @Test
+    void otherThreadsDoNotSeeTheRequestSpanTest() throws Exception {
+        Span serverSpan = tracer.startServerSpan(null, "GET /items");
+        Span otherThreadSpan = CompletableFuture
+                .supplyAsync(() -> tracer.startSpan("on another thread", SpanKind.INTERNAL))
+                .get();
+        Span childSpan = tracer.startSpan("on the request thread", SpanKind.INTERNAL);
+        tracer.end(childSpan);
+        tracer.end(serverSpan);
+
+        assertThat(otherThreadSpan, nullValue());
+        assertThat(childSpan.getParentId(), equalTo(serverSpan.getSpanId()));
+        assertThat(tracer.startSpan("after the request", SpanKind.INTERNAL), nullValue());
+    }
+}
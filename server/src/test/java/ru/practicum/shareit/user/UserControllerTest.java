@@ -11,6 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserViewDto;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -19,8 +20,11 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -69,7 +73,7 @@ public class UserControllerTest {
     @Test
     void getUserByIdTest() throws Exception {
         when(service.getUserById(anyLong()))
-                .thenReturn(userDto);
+                .thenReturn(new UserViewDto(userDto.getId(), userDto.getEmail(), userDto.getName()));
 
         mvc.perform(get("/users/1")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -81,6 +85,20 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.email", is(userDto.getEmail())));
     }
 
+    @Test
+    void getUserByIdNotModifiedTest() throws Exception {
+        when(service.getUserETag(anyLong()))
+                .thenReturn("3");
+
+        mvc.perform(get("/users/1")
+                        .header("If-None-Match", "\"3\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        verify(service, never()).getUserById(anyLong());
+    }
+
     @Test
     void saveNewUserTest() throws Exception {
         when(service.saveNewUser(any()))
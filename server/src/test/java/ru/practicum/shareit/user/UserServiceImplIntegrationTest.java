@@ -4,8 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.config.SqlStatementCounter;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserViewDto;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -14,6 +18,9 @@ import java.util.List;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static ru.practicum.shareit.SqlStatementAssertions.assertMaxStatements;
 
 @Transactional
 @SpringBootTest(
@@ -26,6 +33,10 @@ public class UserServiceImplIntegrationTest {
 
     private final UserServiceImpl service;
 
+    private final CacheManager cacheManager;
+
+    private final SqlStatementCounter counter;
+
     @Test
     void saveNewUserTest() {
         UserDto userDto = new UserDto();
@@ -70,7 +81,7 @@ public class UserServiceImplIntegrationTest {
         userDto.setName("Name");
         userDto.setEmail("e@mail.ru");
         UserDto userDtoSaved = service.saveNewUser(userDto);
-        UserDto userDtoFromService = service.getUserById(userDtoSaved.getId());
+        UserViewDto userDtoFromService = service.getUserById(userDtoSaved.getId());
 
         TypedQuery<User> query = em.createQuery("SELECT u from User u where u.id = :id",
                 User.class);
@@ -112,4 +123,56 @@ public class UserServiceImplIntegrationTest {
 
         assertThat(userDtos.size(), equalTo(2));
     }
+
+    @Test
+    void getUserByIdIsCachedUntilUpdateTest() {
+        UserDto userDto = new UserDto();
+        userDto.setName("Name");
+        userDto.setEmail("cached@mail.ru");
+        UserDto userDtoSaved = service.saveNewUser(userDto);
+        service.getUserById(userDtoSaved.getId());
+
+        assertThat(cacheManager.getCache(CacheConfig.USERS).get(userDtoSaved.getId()), notNullValue());
+
+        userDto.setName("NewName");
+        service.updateUser(userDtoSaved.getId(), userDto);
+
+        assertThat(cacheManager.getCache(CacheConfig.USERS).get(userDtoSaved.getId()), nullValue());
+        assertThat(service.getUserById(userDtoSaved.getId()).getName(), equalTo("NewName"));
+    }
+
+    @Test
+    void getUserByIdSharesOneImmutableCachedValueTest() {
+        UserDto userDto = new UserDto();
+        userDto.setName("Name");
+        userDto.setEmail("shared@mail.ru");
+        UserDto userDtoSaved = service.saveNewUser(userDto);
+
+        UserViewDto first = service.getUserById(userDtoSaved.getId());
+        UserViewDto second = service.getUserById(userDtoSaved.getId());
+
+        assertThat(second, sameInstance(first));
+        assertThat(cacheManager.getCache(CacheConfig.USERS).get(userDtoSaved.getId()).get(), sameInstance(first));
+    }
+
+    @Test
+    void updateAndGetUserInConstantNumberOfStatementsTest() {
+        UserDto userDto = new UserDto();
+        userDto.setName("Name");
+        userDto.setEmail("counted@mail.ru");
+        UserDto userDtoSaved = service.saveNewUser(userDto);
+        em.flush();
+        em.clear();
+
+        userDto.setName("NewName");
+        assertMaxStatements(counter, 2, () -> {
+            UserDto user = service.updateUser(userDtoSaved.getId(), userDto);
+            em.flush();
+            return user;
+        });
+        em.clear();
+        UserViewDto user = assertMaxStatements(counter, 1, () -> service.getUserById(userDtoSaved.getId()));
+
+        assertThat(user.getName(), equalTo("NewName"));
+    }
 }
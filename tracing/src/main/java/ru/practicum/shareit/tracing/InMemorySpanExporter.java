@@ -0,0 +1,35 @@
+package ru.practicum.shareit.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the last {@code maxSpans} spans in the process, read through the spans actuator endpoint.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+    private final Deque<Span> spans = new ArrayDeque<>();
+
+    private final int maxSpans;
+
+    public InMemorySpanExporter(int maxSpans) {
+        this.maxSpans = maxSpans;
+    }
+
+    @Override
+    public synchronized void export(Span span) {
+        if (spans.size() == maxSpans) {
+            spans.removeFirst();
+        }
+        spans.addLast(span);
+    }
+
+    public synchronized List<Span> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    public synchronized void clear() {
+        spans.clear();
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends spans to a file, one JSON object per line. Request threads only enqueue; a background thread writes,
+ * and spans are dropped rather than slowing requests down when the queue is full.
+ */
+@Slf4j
+public class JsonLinesSpanExporter implements SpanExporter, DisposableBean {
+    private final BlockingQueue<Span> queue;
+
+    private final ObjectMapper objectMapper;
+
+    private final BufferedWriter writer;
+
+    private final Thread worker;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public JsonLinesSpanExporter(Path file, int queueSize, ObjectMapper objectMapper) throws IOException {
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.objectMapper = objectMapper;
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        this.worker = new Thread(this::drain, "span-exporter");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void export(Span span) {
+        if (!queue.offer(span)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(1));
+        List<Span> spans = new ArrayList<>();
+        queue.drainTo(spans);
+        write(spans);
+        writer.close();
+        if (dropped.get() > 0) {
+            log.warn("{} spans were dropped because the export queue was full", dropped.get());
+        }
+    }
+
+    private void drain() {
+        List<Span> spans = new ArrayList<>();
+        while (running) {
+            try {
+                Span span = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (span == null) {
+                    continue;
+                }
+                spans.add(span);
+                queue.drainTo(spans);
+                write(spans);
+                spans.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private synchronized void write(List<Span> spans) {
+        try {
+            for (Span span : spans) {
+                writer.write(objectMapper.writeValueAsString(span));
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("Could not write {} spans: {}", spans.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed operation of a trace. Spans are exported when they end, one JSON object each.
+ */
+@Getter
+public class Span {
+    private final String traceId;
+
+    private final String spanId;
+
+    private final String parentId;
+
+    @Setter
+    private String name;
+
+    private final SpanKind kind;
+
+    private final String service;
+
+    private final long startMicros;
+
+    private long durationMicros;
+
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+    private String error;
+
+    @JsonIgnore
+    private final boolean sampled;
+
+    @JsonIgnore
+    private final long startNanos = System.nanoTime();
+
+    Span(String traceId, String spanId, String parentId, String name, SpanKind kind, String service, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.name = name;
+        this.kind = kind;
+        this.service = service;
+        this.sampled = sampled;
+        this.startMicros = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+
+    public void setAttribute(String key, Object value) {
+        attributes.put(key, value);
+    }
+
+    public void setError(Throwable e) {
+        error = e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    public String toTraceParent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    void end() {
+        durationMicros = (System.nanoTime() - startNanos) / 1000;
+    }
+}
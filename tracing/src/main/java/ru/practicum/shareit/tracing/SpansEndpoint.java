@@ -0,0 +1,28 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Endpoint(id = "spans")
+@RequiredArgsConstructor
+public class SpansEndpoint {
+    private final InMemorySpanExporter exporter;
+
+    @ReadOperation
+    public List<Span> spans(@Nullable String traceId) {
+        return exporter.getSpans().stream()
+                .filter(span -> traceId == null || traceId.equals(span.getTraceId()))
+                .collect(Collectors.toList());
+    }
+
+    @DeleteOperation
+    public void clear() {
+        exporter.clear();
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts and exports spans. Parents are passed explicitly, so each application keeps its current span where its
+ * requests run: a thread of the server, the Reactor context of the gateway. The server span continues the W3C trace
+ * context of the caller when it sent a valid traceparent header; spans started below it share its trace and sampling
+ * decision.
+ */
+public class Tracer {
+    public static final String TRACE_PARENT = "traceparent";
+
+    private static final Pattern TRACE_PARENT_FORMAT =
+            Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+
+    private static final String ZEROS = "0000000000000000";
+
+    private final SpanExporter exporter;
+
+    private final String service;
+
+    private final double sampleRate;
+
+    public Tracer(SpanExporter exporter, String service, double sampleRate) {
+        this.exporter = exporter;
+        this.service = service;
+        this.sampleRate = sampleRate;
+    }
+
+    public Span startServerSpan(@Nullable String traceParent, String name) {
+        Matcher matcher = traceParent != null ? TRACE_PARENT_FORMAT.matcher(traceParent.trim()) : null;
+        if (matcher != null && matcher.matches() && !matcher.group(1).equals(ZEROS + ZEROS)
+                && !matcher.group(2).equals(ZEROS)) {
+            boolean sampled = (Integer.parseInt(matcher.group(3), 16) & 1) == 1;
+            return new Span(matcher.group(1), newId(), matcher.group(2), name, SpanKind.SERVER, service, sampled);
+        }
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < sampleRate;
+        return new Span(newId() + newId(), newId(), null, name, SpanKind.SERVER, service, sampled);
+    }
+
+    /**
+     * Starts a child of {@code parent}. Children of a span that is not sampled are not exported either,
+     * but still pass the decision on in their traceparent.
+     */
+    public Span startSpan(Span parent, String name, SpanKind kind) {
+        return new Span(parent.getTraceId(), newId(), parent.getSpanId(), name, kind, service, parent.isSampled());
+    }
+
+    public void end(Span span) {
+        span.end();
+        if (span.isSampled()) {
+            exporter.export(span);
+        }
+    }
+
+    private static String newId() {
+        String hex = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return ZEROS.substring(hex.length()) + hex;
+    }
+}
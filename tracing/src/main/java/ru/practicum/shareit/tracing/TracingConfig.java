@@ -0,0 +1,49 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Tracing is on when {@code shareit.tracing.exporter} is {@code file} (JSON lines appended to
+ * {@code shareit.tracing.file}) or {@code memory} (the last spans, served by /actuator/spans).
+ * Each application adds the filters that open and propagate spans on its own transport.
+ */
+@Configuration
+@ConditionalOnExpression("'${shareit.tracing.exporter:none}' != 'none'")
+public class TracingConfig {
+
+    @Bean
+    public Tracer tracer(SpanExporter spanExporter,
+                         @Value("${spring.application.name:shareit}") String service,
+                         @Value("${shareit.tracing.sample-rate:1.0}") double sampleRate) {
+        return new Tracer(spanExporter, service, sampleRate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.tracing.exporter", havingValue = "file")
+    public JsonLinesSpanExporter jsonLinesSpanExporter(
+            @Value("${shareit.tracing.file:${spring.application.name:shareit}-spans.jsonl}") Path file,
+            @Value("${shareit.tracing.queue-size:10000}") int queueSize,
+            ObjectMapper objectMapper) throws IOException {
+        return new JsonLinesSpanExporter(file, queueSize, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.tracing.exporter", havingValue = "memory")
+    public InMemorySpanExporter inMemorySpanExporter(@Value("${shareit.tracing.max-spans:10000}") int maxSpans) {
+        return new InMemorySpanExporter(maxSpans);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.tracing.exporter", havingValue = "memory")
+    public SpansEndpoint spansEndpoint(InMemorySpanExporter inMemorySpanExporter) {
+        return new SpansEndpoint(inMemorySpanExporter);
+    }
+}
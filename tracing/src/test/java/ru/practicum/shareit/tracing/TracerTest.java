@@ -0,0 +1,91 @@
+package ru.practicum.shareit.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+class TracerTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private static final String CALLER_SPAN_ID = "00f067aa0ba902b7";
+
+    private final InMemorySpanExporter exporter = new InMemorySpanExporter(100);
+
+    private final Tracer tracer = new Tracer(exporter, "shareit-test", 1.0);
+
+    @Test
+    void serverSpanContinuesCallerTraceTest() {
+        Span span = tracer.startServerSpan("00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01", "GET /items");
+
+        assertThat(span.getTraceId(), equalTo(TRACE_ID));
+        assertThat(span.getParentId(), equalTo(CALLER_SPAN_ID));
+        assertThat(span.getSpanId(), matchesPattern("[0-9a-f]{16}"));
+        assertThat(span.getSpanId(), not(equalTo(CALLER_SPAN_ID)));
+        assertThat(span.getKind(), equalTo(SpanKind.SERVER));
+        assertThat(span.getService(), equalTo("shareit-test"));
+        assertThat(span.isSampled(), equalTo(true));
+    }
+
+    @Test
+    void childSpanPassesTraceOnTest() {
+        Span server = tracer.startServerSpan("00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01", "GET /items");
+
+        Span client = tracer.startSpan(server, "GET /items", SpanKind.CLIENT);
+
+        assertThat(client.getTraceId(), equalTo(TRACE_ID));
+        assertThat(client.getParentId(), equalTo(server.getSpanId()));
+        assertThat(client.toTraceParent(), equalTo("00-" + TRACE_ID + "-" + client.getSpanId() + "-01"));
+    }
+
+    @Test
+    void malformedTraceParentStartsNewTraceTest() {
+        Span zeroTrace = tracer.startServerSpan("00-" + "0".repeat(32) + "-" + CALLER_SPAN_ID + "-01", "GET /items");
+        Span wrongVersion = tracer.startServerSpan("01-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01", "GET /items");
+        Span upperCase = tracer.startServerSpan("00-" + TRACE_ID.toUpperCase() + "-" + CALLER_SPAN_ID + "-01",
+                "GET /items");
+
+        for (Span span : new Span[]{zeroTrace, wrongVersion, upperCase}) {
+            assertThat(span.getTraceId(), matchesPattern("[0-9a-f]{32}"));
+            assertThat(span.getTraceId(), not(equalTo(TRACE_ID)));
+            assertThat(span.getParentId(), nullValue());
+        }
+    }
+
+    @Test
+    void notSampledTraceIsNotExportedButPassedOnTest() {
+        Span server = tracer.startServerSpan("00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-00", "GET /items");
+        Span client = tracer.startSpan(server, "GET /items", SpanKind.CLIENT);
+
+        tracer.end(client);
+        tracer.end(server);
+
+        assertThat(client.toTraceParent(), equalTo("00-" + TRACE_ID + "-" + client.getSpanId() + "-00"));
+        assertThat(exporter.getSpans(), empty());
+    }
+
+    @Test
+    void endedSpansAreExportedInOrderTest() {
+        Span server = tracer.startServerSpan(null, "GET /items");
+        Span client = tracer.startSpan(server, "GET /items", SpanKind.CLIENT);
+
+        tracer.end(client);
+        tracer.end(server);
+
+        assertThat(exporter.getSpans(), contains(client, server));
+    }
+
+    @Test
+    void zeroSampleRateDropsNewTracesTest() {
+        Tracer neverSampling = new Tracer(exporter, "shareit-test", 0.0);
+
+        neverSampling.end(neverSampling.startServerSpan(null, "GET /items"));
+
+        assertThat(exporter.getSpans(), empty());
+    }
+}